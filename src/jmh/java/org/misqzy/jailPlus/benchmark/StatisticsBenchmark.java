@@ -0,0 +1,146 @@
+package org.misqzy.jailPlus.benchmark;
+
+import org.bukkit.OfflinePlayer;
+import org.misqzy.jailPlus.hooks.impl.StatisticsHook;
+import org.misqzy.jailPlus.managers.StatisticsStore;
+import org.misqzy.jailPlus.utils.Leaderboard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics placeholders and leaderboard updates.
+ * The hook reads from a {@link StatisticsStore} filled with {@value #PLAYERS} players, so every lookup goes
+ * through the record, its pre-rendered text and the daily history, for a ranked player (hit) and for a
+ * player without statistics (miss).
+ * Run with {@code -prof gc}: the lookups are expected at gc.alloc.rate.norm ≈ 0 B/op, except statMixedCase
+ * which pays for one lower case copy of the parameter (~40 B/op); leaderboardUpdate* only allocates when
+ * the ranking changes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatisticsBenchmark {
+
+    private static final int PLAYERS = 10_000;
+    private static final int LEADERBOARD_SIZE = 10;
+
+    private StatisticsHook hook;
+    private OfflinePlayer known;
+    private OfflinePlayer unknown;
+
+    private UUID[] players;
+    private String[] names;
+    private long[] scores;
+    private Leaderboard leaderboard;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setupHook() {
+        StatisticsStore store = new StatisticsStore(LEADERBOARD_SIZE);
+        store.setFrequentOffender(30, 5);
+
+        long today = StatisticsStore.today();
+        for (int i = 0; i < PLAYERS; i++) {
+            UUID uuid = new UUID(1L, i);
+            // Spread over more days than the history keeps, so the ring holds gaps and rolled-over buckets
+            for (int jail = 0; jail <= i % 8; jail++) {
+                store.addJailRecord(uuid, "player" + i, 600L * (jail + 1), "Reason " + jail, today - (i + jail * 17) % 120);
+            }
+        }
+
+        hook = new StatisticsHook(null, store);
+        known = player(new UUID(1L, PLAYERS - 1));
+        unknown = player(new UUID(2L, 0));
+    }
+
+    // The hook only needs the UUID; the proxy returns the cached instance without allocating
+    private static OfflinePlayer player(UUID uuid) {
+        return (OfflinePlayer) Proxy.newProxyInstance(OfflinePlayer.class.getClassLoader(), new Class<?>[]{OfflinePlayer.class},
+                (proxy, method, args) -> method.getName().equals("getUniqueId") ? uuid : null);
+    }
+
+    @Setup(Level.Iteration)
+    public void setupLeaderboard() {
+        players = new UUID[PLAYERS];
+        names = new String[PLAYERS];
+        scores = new long[PLAYERS];
+        leaderboard = new Leaderboard(LEADERBOARD_SIZE);
+
+        for (int i = 0; i < PLAYERS; i++) {
+            players[i] = new UUID(0L, i);
+            names[i] = "player" + i;
+            scores[i] = i;
+            leaderboard.update(players[i], names[i], scores[i]);
+        }
+        next = 0;
+    }
+
+    @Benchmark
+    public String statHit() {
+        return hook.onPlaceholderRequest(known, "stats_times_jailed");
+    }
+
+    @Benchmark
+    public String statMiss() {
+        return hook.onPlaceholderRequest(unknown, "stats_times_jailed");
+    }
+
+    @Benchmark
+    public String statMixedCase() {
+        return hook.onPlaceholderRequest(known, "Stats_Average_Jail_Time");
+    }
+
+    @Benchmark
+    public String frequentOffenderHit() {
+        return hook.onPlaceholderRequest(known, "stats_is_frequent_offender");
+    }
+
+    @Benchmark
+    public String jailedLastDaysHit() {
+        return hook.onPlaceholderRequest(known, "stats_jailed_last_30d");
+    }
+
+    @Benchmark
+    public String jailedLastDaysMiss() {
+        return hook.onPlaceholderRequest(unknown, "stats_jailed_last_90d");
+    }
+
+    @Benchmark
+    public String unknownParam() {
+        return hook.onPlaceholderRequest(known, "stats_unknown");
+    }
+
+    // Most updates come from players far below the top and are rejected without touching the ranking
+    @Benchmark
+    public void leaderboardUpdateOutsideTop() {
+        int i = next++ % (PLAYERS - LEADERBOARD_SIZE);
+        leaderboard.update(players[i], names[i], scores[i]);
+    }
+
+    @Benchmark
+    public void leaderboardUpdateTopMember() {
+        int i = PLAYERS - 1 - (next++ % LEADERBOARD_SIZE);
+        leaderboard.update(players[i], names[i], ++scores[i]);
+    }
+
+    @Benchmark
+    public String leaderboardRead() {
+        return leaderboard.getName(1 + (next++ % LEADERBOARD_SIZE));
+    }
+}
@@ -5,6 +5,7 @@ import org.misqzy.jailPlus.commands.JailAdminCommand;
 import org.misqzy.jailPlus.commands.JailCommand;
 import org.misqzy.jailPlus.commands.UnjailCommand;
 import org.misqzy.jailPlus.listeners.PlayerListener;
+import org.misqzy.jailPlus.listeners.WorldListener;
 import org.misqzy.jailPlus.managers.*;
 
 import java.util.Objects;
@@ -18,6 +19,9 @@ public final class JailPlus extends JavaPlugin {
     private ConfigManager configManager;
     private LocalizationManager localizationManager;
     private JailManager jailManager;
+    private TeleportManager teleportManager;
+    private ChunkTicketManager chunkTicketManager;
+    private RestrictionManager restrictionManager;
 
     // Advanced managers
     private PlaceholderManager placeholderManager;
@@ -66,6 +70,14 @@ public final class JailPlus extends JavaPlugin {
                 jailManager.shutdown();
             }
 
+            if (restrictionManager != null) {
+                restrictionManager.shutdown();
+            }
+
+            if (chunkTicketManager != null) {
+                chunkTicketManager.shutdown();
+            }
+
             if (statisticsManager != null) {
                 statisticsManager.shutdown();
             }
@@ -97,7 +109,10 @@ public final class JailPlus extends JavaPlugin {
             // Core managers
             configManager = new ConfigManager(this);
             localizationManager = new LocalizationManager(this, configManager);
+            chunkTicketManager = new ChunkTicketManager(this, configManager);
+            teleportManager = new TeleportManager(this);
             jailManager = new JailManager(this, configManager, localizationManager);
+            restrictionManager = new RestrictionManager(this, jailManager, configManager);
 
             // Advanced managers
             try {
@@ -164,8 +179,9 @@ public final class JailPlus extends JavaPlugin {
     private void registerListeners() {
         try {
             getServer().getPluginManager().registerEvents(
-                    new PlayerListener(this, jailManager, localizationManager, configManager), this
+                    new PlayerListener(this, jailManager, restrictionManager, localizationManager, configManager), this
             );
+            getServer().getPluginManager().registerEvents(new WorldListener(this), this);
             getLogger().fine("Event handlers registered");
         } catch (Exception e) {
             getLogger().severe("Error registering handlers: " + e);
@@ -191,7 +207,9 @@ public final class JailPlus extends JavaPlugin {
             // Reload configurations
             configManager.reloadConfig();
             localizationManager.reloadMessages();
+            chunkTicketManager.reload();
             jailManager.reloadData();
+            restrictionManager.reload();
 
             // Reload advanced managers
             if (placeholderManager != null) {
@@ -223,8 +241,8 @@ public final class JailPlus extends JavaPlugin {
     private void logStartupInfo() {
         long startupDuration = System.currentTimeMillis() - startupTime;
 
-        getLogger().fine("Jails loaded: " + jailManager.getAllJails().size());
-        getLogger().fine("Prisoners: " + jailManager.getAllJailedPlayers().size());
+        getLogger().fine("Jails loaded: " + jailManager.getJailCount());
+        getLogger().fine("Prisoners: " + jailManager.getPrisonerCount());
 
         if (placeholderManager != null && placeholderManager.isPlaceholderAPIEnabled()) {
             getLogger().info("PlaceholderAPI: Active (" + placeholderManager.getHooks().size() + " hooks)");
@@ -277,6 +295,18 @@ public final class JailPlus extends JavaPlugin {
         return jailManager;
     }
 
+    public TeleportManager getTeleportManager() {
+        return teleportManager;
+    }
+
+    public ChunkTicketManager getChunkTicketManager() {
+        return chunkTicketManager;
+    }
+
+    public RestrictionManager getRestrictionManager() {
+        return restrictionManager;
+    }
+
     public PlaceholderManager getPlaceholderManager() {
         return placeholderManager;
     }
@@ -9,24 +9,56 @@ import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.misqzy.jailPlus.JailPlus;
 import org.misqzy.jailPlus.data.JailData;
+import org.misqzy.jailPlus.data.JailRegion;
 import org.misqzy.jailPlus.data.PlayerJailData;
+import org.misqzy.jailPlus.integrations.PlaceholderCache;
+import org.misqzy.jailPlus.managers.ChunkTicketManager;
 import org.misqzy.jailPlus.managers.ConfigManager;
 import org.misqzy.jailPlus.managers.JailManager;
 import org.misqzy.jailPlus.managers.LocalizationManager;
 import org.misqzy.jailPlus.managers.LogManager;
+import org.misqzy.jailPlus.managers.StatisticsManager;
+import org.misqzy.jailPlus.managers.TeleportManager;
+import org.misqzy.jailPlus.storage.AuditLogIndex;
+import org.misqzy.jailPlus.utils.Leaderboard;
 import org.misqzy.jailPlus.utils.TimeUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 public class JailAdminCommand implements CommandExecutor, TabCompleter {
 
+    private static final int LOGS_PAGE_SIZE = 10;
+    private static final int STATS_TOP_SHOWN = 3;
+
     private final JailPlus plugin;
     private final JailManager jailManager;
     private final ConfigManager configManager;
     private final LocalizationManager localizationManager;
 
+    // Last logs page shown to each sender, the next page continues from it instead of skipping from the newest entry
+    private final Map<String, LogsCursor> logsCursors = new HashMap<>();
+
+    // since is relative to now, so the typed duration is compared and the first command's query is kept
+    private record LogsCursor(AuditLogIndex.Query query, long sinceSeconds, int page, int cursor) {
+
+        boolean isFollowedBy(AuditLogIndex.Query next, long nextSinceSeconds, int nextPage) {
+            return nextPage == page + 1
+                    && nextSinceSeconds == sinceSeconds
+                    && sameFilter(query.player(), next.player())
+                    && sameFilter(query.executor(), next.executor())
+                    && sameFilter(query.action(), next.action());
+        }
+
+        private static boolean sameFilter(String a, String b) {
+            return a == null ? b == null : a.equalsIgnoreCase(b);
+        }
+    }
+
     public JailAdminCommand(JailPlus plugin, JailManager jailManager, ConfigManager configManager, LocalizationManager localizationManager) {
         this.plugin = plugin;
         this.jailManager = jailManager;
@@ -62,6 +94,18 @@ public class JailAdminCommand implements CommandExecutor, TabCompleter {
                 handleTimeCommand(sender, args);
                 break;
 
+            case "transfer":
+                handleTransfer(sender, args);
+                break;
+
+            case "region":
+                handleRegion(sender, args);
+                break;
+
+            case "unjailall":
+                handleUnjailAll(sender, args);
+                break;
+
             case "list":
                 handleListJails(sender);
                 break;
@@ -170,9 +214,7 @@ public class JailAdminCommand implements CommandExecutor, TabCompleter {
         localizationManager.sendMessage(sender, "admin.jails-header");
 
         for (JailData jail : jailManager.getAllJails()) {
-            long prisonersCount = jailManager.getAllJailedPlayers().stream()
-                    .filter(data -> data.getJailName().equals(jail.getName()))
-                    .count();
+            int prisonersCount = jailManager.getPrisonerCount(jail.getName());
 
             localizationManager.sendMessage(sender, "admin.jail-entry",
                     jail.getName(),
@@ -204,9 +246,7 @@ public class JailAdminCommand implements CommandExecutor, TabCompleter {
             return;
         }
 
-        long prisonersCount = jailManager.getAllJailedPlayers().stream()
-                .filter(data -> data.getJailName().equals(jailName))
-                .count();
+        int prisonersCount = jailManager.getPrisonerCount(jailName);
 
         localizationManager.sendMessage(sender, "admin.jail-info",
                 jail.getName(),
@@ -214,7 +254,8 @@ public class JailAdminCommand implements CommandExecutor, TabCompleter {
                 jail.getX(),
                 jail.getY(),
                 jail.getZ(),
-                prisonersCount
+                prisonersCount,
+                jail.getRegion() != null ? jail.getRegion().toString() : "-"
         );
     }
 
@@ -252,33 +293,33 @@ public class JailAdminCommand implements CommandExecutor, TabCompleter {
 
             switch (action) {
                 case "add":
-                    jailData.addTime(time);
+                    jailManager.addJailTime(jailData, time);
                     localizationManager.sendMessage(sender, "jail.time-added",
                             target.getName(), TimeUtils.formatTime(time));
 
                     if (plugin.getLogManager() != null) {
-                        plugin.getLogManager().logTimeChange(target.getName(), executorName, "ADD", time);
+                        plugin.getLogManager().logTimeChange(target.getUniqueId(), target.getName(), executorName, "ADD", time);
                     }
                     break;
 
                 case "remove":
                 case "subtract":
-                    jailData.subtractTime(time);
+                    jailManager.subtractJailTime(jailData, time);
                     localizationManager.sendMessage(sender, "jail.time-removed",
                             target.getName(), TimeUtils.formatTime(time));
 
                     if (plugin.getLogManager() != null) {
-                        plugin.getLogManager().logTimeChange(target.getName(), executorName, "SUBTRACT", time);
+                        plugin.getLogManager().logTimeChange(target.getUniqueId(), target.getName(), executorName, "SUBTRACT", time);
                     }
                     break;
 
                 case "set":
-                    jailData.setTime(time);
+                    jailManager.setJailTime(jailData, time);
                     localizationManager.sendMessage(sender, "jail.time-set",
                             target.getName(), TimeUtils.formatTime(time));
 
                     if (plugin.getLogManager() != null) {
-                        plugin.getLogManager().logTimeChange(target.getName(), executorName, "SET", time);
+                        plugin.getLogManager().logTimeChange(target.getUniqueId(), target.getName(), executorName, "SET", time);
                     }
                     break;
 
@@ -287,13 +328,120 @@ public class JailAdminCommand implements CommandExecutor, TabCompleter {
                     return;
             }
 
-            jailManager.savePlayers();
-
         } catch (IllegalArgumentException e) {
             localizationManager.sendMessage(sender, "jail.invalid-time-format");
         }
     }
 
+    private void handleTransfer(CommandSender sender, String[] args) {
+        if ((sender instanceof Player player) && (!sender.hasPermission("jailplus.admin.transfer"))) {
+            localizationManager.sendMessage(player, "no-permission");
+            return;
+        }
+
+        if (args.length < 3) {
+            localizationManager.sendMessage(sender, "admin.transfer-usage");
+            return;
+        }
+
+        String targetName = args[1];
+        String jailName = args[2].toLowerCase();
+
+        PlayerJailData jailData = jailManager.getJailData(targetName);
+        if (jailData == null) {
+            localizationManager.sendMessage(sender, "jail.not-jailed", targetName);
+            return;
+        }
+
+        if (jailManager.getJail(jailName) == null) {
+            localizationManager.sendMessage(sender, "admin.jail-not-exists", jailName);
+            return;
+        }
+
+        String executorName = sender instanceof Player ? sender.getName() : "Console";
+
+        if (jailManager.transferPlayer(jailData.getPlayerUuid(), jailName, executorName)) {
+            localizationManager.sendMessage(sender, "admin.transferred", jailData.getDisplayName(), jailName);
+        } else {
+            localizationManager.sendMessage(sender, "admin.transfer-failed", jailData.getDisplayName(), jailName);
+        }
+    }
+
+    private void handleUnjailAll(CommandSender sender, String[] args) {
+        if ((sender instanceof Player player) && (!sender.hasPermission("jailplus.admin.unjailall"))) {
+            localizationManager.sendMessage(player, "no-permission");
+            return;
+        }
+
+        if (args.length < 2) {
+            localizationManager.sendMessage(sender, "admin.unjailall-usage");
+            return;
+        }
+
+        String jailName = args[1].toLowerCase();
+        if (jailManager.getJail(jailName) == null) {
+            localizationManager.sendMessage(sender, "admin.jail-not-exists", jailName);
+            return;
+        }
+
+        String executorName = sender instanceof Player ? sender.getName() : "Console";
+        int released = jailManager.unjailAll(jailName, executorName);
+        localizationManager.sendMessage(sender, "admin.unjailall-done", released, jailName);
+    }
+
+    private void handleRegion(CommandSender sender, String[] args) {
+        if ((sender instanceof Player player) && (!sender.hasPermission("jailplus.admin.region"))) {
+            localizationManager.sendMessage(player, "no-permission");
+            return;
+        }
+
+        if (args.length < 3) {
+            localizationManager.sendMessage(sender, "admin.region-usage");
+            return;
+        }
+
+        String jailName = args[1].toLowerCase();
+        JailData jail = jailManager.getJail(jailName);
+        if (jail == null) {
+            localizationManager.sendMessage(sender, "admin.jail-not-exists", jailName);
+            return;
+        }
+
+        String action = args[2].toLowerCase();
+        if (action.equals("clear")) {
+            jailManager.setJailRegion(jailName, null);
+            localizationManager.sendMessage(sender, "admin.region-cleared", jailName);
+            return;
+        }
+
+        if (!action.equals("set") || args.length < 9) {
+            localizationManager.sendMessage(sender, "admin.region-usage");
+            return;
+        }
+
+        int[] coordinates = new int[6];
+        try {
+            for (int i = 0; i < coordinates.length; i++) {
+                coordinates[i] = Integer.parseInt(args[3 + i]);
+            }
+        } catch (NumberFormatException e) {
+            localizationManager.sendMessage(sender, "admin.region-invalid-coordinates");
+            return;
+        }
+
+        JailRegion region = new JailRegion(coordinates[0], coordinates[1], coordinates[2],
+                coordinates[3], coordinates[4], coordinates[5]);
+
+        // Otherwise prisoners would be pushed back from their own jail point
+        if (!region.contains((int) Math.floor(jail.getX()), (int) Math.floor(jail.getY()), (int) Math.floor(jail.getZ()))) {
+            localizationManager.sendMessage(sender, "admin.region-outside", jailName);
+            return;
+        }
+
+        jailManager.setJailRegion(jailName, region);
+        localizationManager.sendMessage(sender, "admin.region-set", jailName, region.toString());
+    }
+
     private void handleReload(CommandSender sender) {
         if ((sender instanceof Player player) && (!sender.hasPermission("jailplus.reload"))) {
             localizationManager.sendMessage(player, "no-permission");
@@ -325,40 +473,69 @@ public class JailAdminCommand implements CommandExecutor, TabCompleter {
             return;
         }
 
-        List<LogManager.LogEntry> logs;
+        String playerFilter = null;
+        String executorFilter = null;
+        String actionFilter = null;
+        long since = 0L;
+        long sinceSeconds = 0L;
+        int page = 1;
 
-        if (args.length > 1) {
-            String filter = args[1].toLowerCase();
-            switch (filter) {
-                case "jail":
-                    logs = logManager.getLogsByAction("JAIL");
-                    break;
-                case "unjail":
-                    logs = logManager.getLogsByAction("UNJAIL");
-                    break;
-                default:
-                    logs = logManager.getLogsForPlayer(args[1]);
-                    break;
+        try {
+            for (int i = 1; i < args.length; i++) {
+                String token = args[i].toLowerCase();
+
+                if (token.equals("page") && i + 1 < args.length) {
+                    page = Integer.parseInt(args[++i]);
+                    if (page < 1) {
+                        throw new IllegalArgumentException("Invalid page: " + page);
+                    }
+                } else if (token.equals("since") && i + 1 < args.length) {
+                    sinceSeconds = TimeUtils.parseTime(args[++i]);
+                    long now = System.currentTimeMillis();
+                    since = sinceSeconds < now / 1000L ? now - sinceSeconds * 1000L : 0L;
+                } else if (token.equals("by") && i + 1 < args.length) {
+                    executorFilter = args[++i];
+                } else if (LogManager.LogAction.parse(token) != null) {
+                    actionFilter = LogManager.LogAction.parse(token).name();
+                } else {
+                    playerFilter = args[i];
+                }
             }
+        } catch (IllegalArgumentException e) {
+            localizationManager.sendMessage(sender, "admin.logs-usage");
+            return;
+        }
+
+        AuditLogIndex.Query query = new AuditLogIndex.Query(playerFilter, executorFilter, actionFilter, since, 0L);
+        LogsCursor previous = logsCursors.remove(sender.getName());
+        LogManager.LogPage logPage;
+        if (previous != null && previous.isFollowedBy(query, sinceSeconds, page)) {
+            query = previous.query();
+            logPage = logManager.queryBefore(query, previous.cursor(), page, LOGS_PAGE_SIZE);
         } else {
-            logs = logManager.getLogs();
+            logPage = logManager.query(query, page, LOGS_PAGE_SIZE);
         }
 
-        if (logs.isEmpty()) {
+        if (logPage.hasMore()) {
+            logsCursors.put(sender.getName(), new LogsCursor(query, sinceSeconds, page, logPage.getCursor()));
+        }
+
+        if (logPage.isEmpty()) {
             localizationManager.sendMessage(sender, "admin.no-logs");
             return;
         }
 
-        localizationManager.sendMessage(sender, "admin.logs-header");
+        localizationManager.sendMessage(sender, "admin.logs-header", page);
 
-        // Show last 10 entries
-        int start = Math.max(0, logs.size() - 10);
-        for (int i = start; i < logs.size(); i++) {
-            LogManager.LogEntry entry = logs.get(i);
+        for (LogManager.LogEntry entry : logPage.getEntries()) {
             sender.sendMessage("§7[" + entry.getTimestamp() + "] §e" + entry.getAction() +
                     " §f" + entry.getPlayer() + " §7by §f" + entry.getExecutor() +
                     " §7- §f" + entry.getDetails());
         }
+
+        if (logPage.hasMore()) {
+            localizationManager.sendMessage(sender, "admin.logs-more", page + 1);
+        }
     }
 
     private void handleStats(CommandSender sender, String[] args) {
@@ -367,16 +544,46 @@ public class JailAdminCommand implements CommandExecutor, TabCompleter {
             return;
         }
 
+        localizationManager.sendMessage(sender, "admin.stats-header");
+        localizationManager.sendMessage(sender, "admin.stats-general",
+                jailManager.getJailCount(),
+                jailManager.getPrisonerCount()
+        );
+
+        if (args.length <= 1) {
+            sendTeleportStats(sender);
+        }
+
         if (plugin.getStatisticsManager() == null) {
             localizationManager.sendMessage(sender, "admin.stats-disabled");
             return;
         }
 
-        localizationManager.sendMessage(sender, "admin.stats-header");
-        localizationManager.sendMessage(sender, "admin.stats-general",
-                jailManager.getAllJails().size(),
-                jailManager.getAllJailedPlayers().size()
-        );
+        var statisticsManager = plugin.getStatisticsManager();
+
+        if (args.length <= 1) {
+            localizationManager.sendMessage(sender, "admin.stats-totals",
+                    statisticsManager.getTotalJailings(),
+                    TimeUtils.formatTime(statisticsManager.getTotalJailTime()),
+                    statisticsManager.getPlayersJailed()
+            );
+
+            for (StatisticsManager.LeaderboardMetric metric : StatisticsManager.LeaderboardMetric.values()) {
+                List<Leaderboard.Entry> entries = statisticsManager.getLeaderboard(metric).getEntries();
+                if (entries.isEmpty()) {
+                    continue;
+                }
+
+                localizationManager.sendMessage(sender, "admin.stats-top-header", metric.getKey());
+                for (int i = 0; i < Math.min(STATS_TOP_SHOWN, entries.size()); i++) {
+                    Leaderboard.Entry entry = entries.get(i);
+                    String value = metric == StatisticsManager.LeaderboardMetric.JAILED
+                            ? String.valueOf(entry.value())
+                            : TimeUtils.formatTime(entry.value());
+                    localizationManager.sendMessage(sender, "admin.stats-top-entry", i + 1, entry.name(), value);
+                }
+            }
+        }
 
         if (args.length > 1) {
             Player target = Bukkit.getPlayer(args[1]);
@@ -386,11 +593,26 @@ public class JailAdminCommand implements CommandExecutor, TabCompleter {
                 sender.sendMessage("§7Times jailed: §f" + statsManager.getTimesJailed(target.getUniqueId()));
                 sender.sendMessage("§7Total jail time: §f" + TimeUtils.formatTime(statsManager.getTotalJailTime(target.getUniqueId())));
                 sender.sendMessage("§7Longest jail: §f" + TimeUtils.formatTime(statsManager.getLongestJailTime(target.getUniqueId())));
+                sender.sendMessage("§7Jailed in last 7/30 days: §f" + statsManager.getJailCountInLastDays(target.getUniqueId(), 7)
+                        + "§7/§f" + statsManager.getJailCountInLastDays(target.getUniqueId(), 30));
                 sender.sendMessage("§7Frequent offender: §f" + (statsManager.isFrequentOffender(target.getUniqueId()) ? "Yes" : "No"));
             }
         }
     }
 
+    private void sendTeleportStats(CommandSender sender) {
+        TeleportManager teleportManager = plugin.getTeleportManager();
+        sender.sendMessage(String.format(Locale.ROOT,
+                "§7Teleports: §f%d §7(§f%d §7failed), avg §f%.1fms§7, max §f%.1fms§7, chunk loads: §f%d",
+                teleportManager.getTeleportCount(), teleportManager.getFailedCount(),
+                teleportManager.getAverageTeleportMillis(), teleportManager.getMaxTeleportMillis(),
+                teleportManager.getChunkLoadCount()));
+
+        ChunkTicketManager chunkTicketManager = plugin.getChunkTicketManager();
+        sender.sendMessage("§7Chunk tickets: §f" + chunkTicketManager.getTicketCount() + " §7("
+                + chunkTicketManager.getMode() + ", radius §f" + chunkTicketManager.getRadius() + "§7)");
+    }
+
     private void handlePlaceholders(CommandSender sender) {
         if ((sender instanceof Player player) && (!sender.hasPermission("jailplus.placeholders"))) {
             localizationManager.sendMessage(player, "no-permission");
@@ -410,6 +632,12 @@ public class JailAdminCommand implements CommandExecutor, TabCompleter {
         }
 
         sender.sendMessage("§aTotal: " + placeholders.length + " placeholders available");
+
+        PlaceholderCache cache = plugin.getPlaceholderManager().getCache();
+        if (cache != null) {
+            sender.sendMessage("§7Cache: §f" + cache.size() + " §7entries, §f" + cache.getHits() + " §7hits, §f"
+                    + cache.getMisses() + " §7misses, §f" + cache.getEvictions() + " §7evictions");
+        }
     }
 
     private void showHelp(CommandSender sender) {
@@ -420,6 +648,9 @@ public class JailAdminCommand implements CommandExecutor, TabCompleter {
         localizationManager.sendMessage(sender, "admin.help-info");
         localizationManager.sendMessage(sender, "admin.help-reload");
         localizationManager.sendMessage(sender, "admin.help-time");
+        localizationManager.sendMessage(sender, "admin.help-transfer");
+        localizationManager.sendMessage(sender, "admin.help-unjailall");
+        localizationManager.sendMessage(sender, "admin.help-region");
         localizationManager.sendMessage(sender, "admin.help-logs");
         localizationManager.sendMessage(sender, "admin.help-stats");
         localizationManager.sendMessage(sender, "admin.help-placeholders");
@@ -431,16 +662,30 @@ public class JailAdminCommand implements CommandExecutor, TabCompleter {
 
         if (args.length == 1) {
             completions.addAll(Arrays.asList("create", "delete", "list", "info", "reload",
-                    "help", "time", "logs", "stats", "placeholders"));
+                    "help", "time", "transfer", "unjailall", "region", "logs", "stats", "placeholders"));
         } else if (args.length == 2) {
-            if (args[0].equalsIgnoreCase("delete") || args[0].equalsIgnoreCase("info")) {
+            if (args[0].equalsIgnoreCase("delete") || args[0].equalsIgnoreCase("info")
+                    || args[0].equalsIgnoreCase("region") || args[0].equalsIgnoreCase("unjailall")) {
                 jailManager.getAllJails().forEach(jail -> completions.add(jail.getName()));
             } else if (args[0].equalsIgnoreCase("time") || args[0].equalsIgnoreCase("stats")) {
                 Bukkit.getOnlinePlayers().forEach(player -> completions.add(player.getName()));
+            } else if (args[0].equalsIgnoreCase("transfer")) {
+                completions.addAll(jailManager.getPrisonerNames(args[1]));
             } else if (args[0].equalsIgnoreCase("logs")) {
                 completions.addAll(Arrays.asList("jail", "unjail"));
-                jailManager.getAllJailedPlayers().forEach(data -> completions.add(data.getPlayerName()));
+                completions.addAll(jailManager.getPrisonerNames(args[1]));
             }
+        } else if (args.length > 2 && args[0].equalsIgnoreCase("logs")) {
+            completions.addAll(Arrays.asList("page", "since", "by"));
+        } else if (args.length == 3 && args[0].equalsIgnoreCase("transfer")) {
+            jailManager.getAllJails().forEach(jail -> completions.add(jail.getName()));
+        } else if (args.length == 3 && args[0].equalsIgnoreCase("region")) {
+            completions.addAll(Arrays.asList("set", "clear"));
+        } else if (args.length > 3 && args.length <= 9 && args[0].equalsIgnoreCase("region")
+                && args[2].equalsIgnoreCase("set") && sender instanceof Player player) {
+            // Suggest the block the admin is standing on
+            int[] position = {player.getLocation().getBlockX(), player.getLocation().getBlockY(), player.getLocation().getBlockZ()};
+            completions.add(String.valueOf(position[(args.length - 4) % 3]));
         } else if (args.length == 3 && args[0].equalsIgnoreCase("time")) {
             completions.addAll(Arrays.asList("add", "remove", "set"));
         } else if (args.length == 4 && args[0].equalsIgnoreCase("time")) {
@@ -1,6 +1,7 @@
 package org.misqzy.jailPlus.commands;
 
 import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
@@ -16,7 +17,10 @@ import org.misqzy.jailPlus.utils.TimeUtils;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 public class JailCommand implements CommandExecutor, TabCompleter {
 
@@ -76,16 +80,33 @@ public class JailCommand implements CommandExecutor, TabCompleter {
         }
 
         String targetName = args[1];
-        Player target = Bukkit.getPlayer(targetName);
 
-        if (target == null) {
-            localizationManager.sendMessage(sender, "player.not-found", targetName);
+        // Several targets separated by commas
+        boolean bulk = targetName.indexOf(',') >= 0;
+        if (bulk && (sender instanceof Player) && !sender.hasPermission("jailplus.jail.bulk")) {
+            localizationManager.sendMessage(sender, "no-permission");
             return;
         }
 
-        if (jailManager.isPlayerJailed(target)) {
-            localizationManager.sendMessage(sender, "jail.already-jailed", target.getName());
-            return;
+        Player target = null;
+        OfflinePlayer offlineTarget = null;
+        String displayName = targetName;
+
+        if (!bulk) {
+            target = Bukkit.getPlayer(targetName);
+            offlineTarget = target != null ? target : resolveOfflinePlayer(targetName);
+
+            if (offlineTarget == null) {
+                localizationManager.sendMessage(sender, "player.not-found", targetName);
+                return;
+            }
+
+            displayName = offlineTarget.getName() != null ? offlineTarget.getName() : offlineTarget.getUniqueId().toString();
+
+            if (jailManager.getJailData(offlineTarget.getUniqueId()) != null) {
+                localizationManager.sendMessage(sender, "jail.already-jailed", displayName);
+                return;
+            }
         }
 
         String jailName = null;
@@ -144,6 +165,26 @@ public class JailCommand implements CommandExecutor, TabCompleter {
         }
 
         String jailedBy = sender instanceof Player ? sender.getName() : "Console";
+
+        if (bulk) {
+            handleBulkJail(sender, targetName, jailName, jailTime, reason, jailedBy);
+            return;
+        }
+
+        if (target == null) {
+            // The name stays unknown for a UUID that never joined, displayName is only for messages
+            boolean success = jailManager.jailOfflinePlayer(offlineTarget.getUniqueId(), offlineTarget.getName(),
+                    jailName, jailTime, reason, jailedBy);
+
+            if (success) {
+                localizationManager.sendMessage(sender, "jail.success-offline",
+                        displayName, TimeUtils.formatTime(jailTime), reason);
+            } else {
+                localizationManager.sendMessage(sender, "jail.failed", displayName);
+            }
+            return;
+        }
+
         boolean success = jailManager.jailPlayer(target, jailName, jailTime, reason, jailedBy);
 
         if (success) {
@@ -154,6 +195,53 @@ public class JailCommand implements CommandExecutor, TabCompleter {
         }
     }
 
+    private void handleBulkJail(CommandSender sender, String targetList, String jailName, long jailTime,
+                                String reason, String jailedBy) {
+        Map<UUID, OfflinePlayer> targets = new LinkedHashMap<>();
+        List<String> notFound = new ArrayList<>();
+
+        for (String name : targetList.split(",")) {
+            name = name.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+
+            Player online = Bukkit.getPlayerExact(name);
+            OfflinePlayer resolved = online != null ? online : resolveOfflinePlayer(name);
+            if (resolved == null) {
+                notFound.add(name);
+            } else {
+                targets.putIfAbsent(resolved.getUniqueId(), resolved);
+            }
+        }
+
+        List<String> jailed = jailManager.jailPlayers(targets.values(), jailName, jailTime, reason, jailedBy);
+
+        localizationManager.sendMessage(sender, "jail.bulk-success",
+                jailed.size(), TimeUtils.formatTime(jailTime), reason, String.join(", ", jailed));
+
+        int skipped = targets.size() - jailed.size();
+        if (skipped > 0) {
+            localizationManager.sendMessage(sender, "jail.bulk-skipped", skipped);
+        }
+        if (!notFound.isEmpty()) {
+            localizationManager.sendMessage(sender, "player-not-found", String.join(", ", notFound));
+        }
+    }
+
+    // Only players the server has seen before, so no profile lookup is made
+    private OfflinePlayer resolveOfflinePlayer(String nameOrUuid) {
+        if (nameOrUuid.length() == 36) {
+            try {
+                OfflinePlayer player = Bukkit.getOfflinePlayer(UUID.fromString(nameOrUuid));
+                return player.hasPlayedBefore() ? player : null;
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+
+        return Bukkit.getOfflinePlayerIfCached(nameOrUuid);
+    }
+
     private void handleListCommand(CommandSender sender, String[] args) {
         if ((sender instanceof Player player) && (!sender.hasPermission("jailplus.jail.list"))) {
             localizationManager.sendMessage(player, "no-permission");
@@ -170,7 +258,7 @@ public class JailCommand implements CommandExecutor, TabCompleter {
         for (PlayerJailData jailData : jailManager.getAllJailedPlayers()) {
             long remainingTime = jailData.getRemainingTime();
             localizationManager.sendMessage(sender, "jail.list-entry",
-                    jailData.getPlayerName(),
+                    jailData.getDisplayName(),
                     jailData.getJailName(),
                     TimeUtils.formatTime(remainingTime),
                     jailData.getReason()
@@ -233,7 +321,7 @@ public class JailCommand implements CommandExecutor, TabCompleter {
             if (sender instanceof Player) {
                 if (sender.hasPermission("jailplus.jail.info.other")) {
                     localizationManager.sendMessage(sender, "jail.info",
-                            jailData.getPlayerName(),
+                            jailData.getDisplayName(),
                             jailData.getJailName(),
                             timeFormatted,
                             jailData.getReason(),
@@ -244,7 +332,7 @@ public class JailCommand implements CommandExecutor, TabCompleter {
                 }
             } else {
                 localizationManager.sendMessage(sender, "jail.info",
-                        jailData.getPlayerName(),
+                        jailData.getDisplayName(),
                         jailData.getJailName(),
                         timeFormatted,
                         jailData.getReason(),
@@ -8,6 +8,7 @@ import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.misqzy.jailPlus.JailPlus;
+import org.misqzy.jailPlus.data.PlayerJailData;
 import org.misqzy.jailPlus.managers.JailManager;
 import org.misqzy.jailPlus.managers.LocalizationManager;
 
@@ -55,19 +56,21 @@ public class UnjailCommand implements CommandExecutor, TabCompleter {
 
                 // Log the unjail action
                 if (plugin.getLogManager() != null) {
-                    plugin.getLogManager().logUnjail(target.getName(), executorName, "Manual unjail");
+                    plugin.getLogManager().logUnjail(target.getUniqueId(), target.getName(), executorName, "Manual unjail");
                 }
             } else {
                 localizationManager.sendMessage(sender, "unjail.failed", target.getName());
             }
         } else {
-            boolean success = jailManager.unjailPlayer(targetName);
+            PlayerJailData jailData = jailManager.getJailData(targetName);
+            boolean success = jailData != null && jailManager.unjailPlayer(jailData.getPlayerUuid());
             if (success) {
-                localizationManager.sendMessage(sender, "unjail.success", targetName);
+                localizationManager.sendMessage(sender, "unjail.success", jailData.getDisplayName());
 
                 // Log the unjail action
                 if (plugin.getLogManager() != null) {
-                    plugin.getLogManager().logUnjail(targetName, executorName, "Manual unjail (offline)");
+                    plugin.getLogManager().logUnjail(jailData.getPlayerUuid(), jailData.getPlayerName(),
+                            executorName, "Manual unjail (offline)");
                 }
             } else {
                 localizationManager.sendMessage(sender, "unjail.not-found", targetName);
@@ -82,9 +85,7 @@ public class UnjailCommand implements CommandExecutor, TabCompleter {
         List<String> completions = new ArrayList<>();
 
         if (args.length == 1) {
-            jailManager.getAllJailedPlayers().forEach(jailData ->
-                    completions.add(jailData.getPlayerName())
-            );
+            completions.addAll(jailManager.getPrisonerNames(args[0]));
         }
 
         return completions;
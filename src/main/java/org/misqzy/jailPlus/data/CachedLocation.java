@@ -0,0 +1,47 @@
+package org.misqzy.jailPlus.data;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+
+/**
+ * Location template resolved once against its world and handed out as clones.
+ * All templates are dropped together when a world loads or unloads,
+ * a missing world is cached as well until then.
+ */
+public final class CachedLocation {
+
+    // Bumped on world load and unload, templates of an older generation are resolved again
+    private static volatile int generation;
+
+    private record Template(int generation, Location location) {
+    }
+
+    private volatile Template template;
+
+    public static void invalidateAll() {
+        generation++;
+    }
+
+    public void invalidate() {
+        template = null;
+    }
+
+    /**
+     * @return a clone of the cached location, or {@code null} if the world is not loaded
+     */
+    public Location get(String worldName, double x, double y, double z, float yaw, float pitch) {
+        int current = generation;
+        Template cached = template;
+
+        // A template of an unloaded world is never handed out, even before the next invalidation
+        if (cached == null || cached.generation != current
+                || (cached.location != null && !cached.location.isWorldLoaded())) {
+            World world = worldName != null ? Bukkit.getWorld(worldName) : null;
+            cached = new Template(current, world != null ? new Location(world, x, y, z, yaw, pitch) : null);
+            template = cached;
+        }
+
+        return cached.location != null ? cached.location.clone() : null;
+    }
+}
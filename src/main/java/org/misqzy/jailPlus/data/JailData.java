@@ -1,8 +1,6 @@
 package org.misqzy.jailPlus.data;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
-import org.bukkit.World;
 
 public class JailData {
 
@@ -10,6 +8,9 @@ public class JailData {
     private String worldName;
     private double x, y, z;
     private float yaw, pitch;
+    private JailRegion region;
+
+    private final CachedLocation location = new CachedLocation();
 
     public JailData(String name, String worldName, double x, double y, double z, float yaw, float pitch) {
         this.name = name;
@@ -21,6 +22,11 @@ public class JailData {
         this.pitch = pitch;
     }
 
+    public JailData(JailData other) {
+        this(other.name, other.worldName, other.x, other.y, other.z, other.yaw, other.pitch);
+        this.region = other.region;
+    }
+
     public JailData(String name, Location location) {
         this.name = name;
         this.worldName = location.getWorld().getName();
@@ -32,28 +38,26 @@ public class JailData {
     }
 
     public Location getLocation() {
-        World world = Bukkit.getWorld(worldName);
-        if (world == null) {
-            return null;
-        }
-        return new Location(world, x, y, z, yaw, pitch);
+        return location.get(worldName, x, y, z, yaw, pitch);
     }
 
     // Getters and setters
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
     public String getWorldName() { return worldName; }
-    public void setWorldName(String worldName) { this.worldName = worldName; }
+    public void setWorldName(String worldName) { this.worldName = worldName; location.invalidate(); }
     public double getX() { return x; }
-    public void setX(double x) { this.x = x; }
+    public void setX(double x) { this.x = x; location.invalidate(); }
     public double getY() { return y; }
-    public void setY(double y) { this.y = y; }
+    public void setY(double y) { this.y = y; location.invalidate(); }
     public double getZ() { return z; }
-    public void setZ(double z) { this.z = z; }
+    public void setZ(double z) { this.z = z; location.invalidate(); }
     public float getYaw() { return yaw; }
-    public void setYaw(float yaw) { this.yaw = yaw; }
+    public void setYaw(float yaw) { this.yaw = yaw; location.invalidate(); }
     public float getPitch() { return pitch; }
-    public void setPitch(float pitch) { this.pitch = pitch; }
+    public void setPitch(float pitch) { this.pitch = pitch; location.invalidate(); }
+    public JailRegion getRegion() { return region; }
+    public void setRegion(JailRegion region) { this.region = region; }
 
     @Override
     public String toString() {
@@ -0,0 +1,38 @@
+package org.misqzy.jailPlus.data;
+
+/**
+ * Block-aligned cuboid a prisoner is confined to, bounds inclusive.
+ * Lives in the world of the jail it belongs to.
+ */
+public final class JailRegion {
+
+    private final int minX, minY, minZ;
+    private final int maxX, maxY, maxZ;
+
+    public JailRegion(int x1, int y1, int z1, int x2, int y2, int z2) {
+        this.minX = Math.min(x1, x2);
+        this.minY = Math.min(y1, y2);
+        this.minZ = Math.min(z1, z2);
+        this.maxX = Math.max(x1, x2);
+        this.maxY = Math.max(y1, y2);
+        this.maxZ = Math.max(z1, z2);
+    }
+
+    public boolean contains(int x, int y, int z) {
+        return x >= minX && x <= maxX
+                && y >= minY && y <= maxY
+                && z >= minZ && z <= maxZ;
+    }
+
+    public int getMinX() { return minX; }
+    public int getMinY() { return minY; }
+    public int getMinZ() { return minZ; }
+    public int getMaxX() { return maxX; }
+    public int getMaxY() { return maxY; }
+    public int getMaxZ() { return maxZ; }
+
+    @Override
+    public String toString() {
+        return minX + ", " + minY + ", " + minZ + " -> " + maxX + ", " + maxY + ", " + maxZ;
+    }
+}
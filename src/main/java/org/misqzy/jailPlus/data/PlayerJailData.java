@@ -1,8 +1,6 @@
 package org.misqzy.jailPlus.data;
 
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
-import org.bukkit.World;
 
 import java.util.UUID;
 
@@ -12,25 +10,46 @@ public class PlayerJailData {
     private String playerName;
     private String jailName;
     private long jailTime; // Время заключения в секундах
-    private long startTime; // Время начала заключения (timestamp)
+    private long startMillis; // Время начала заключения (epoch millis)
     private String reason;
     private String jailedBy;
+    // Sentenced while offline, the time starts running on the next join
+    private boolean pending;
 
     private String previousWorldName;
     private double previousX, previousY, previousZ;
     private float previousYaw, previousPitch;
 
+    private final CachedLocation previousLocation = new CachedLocation();
+
     public PlayerJailData(UUID playerUuid, String playerName, String jailName,
                           long jailTime, String reason, String jailedBy) {
         this.playerUuid = playerUuid;
-        this.playerName = playerName;
+        this.playerName = playerName != null ? playerName : "";
         this.jailName = jailName;
         this.jailTime = jailTime;
-        this.startTime = System.currentTimeMillis() / 1000;
+        this.startMillis = System.currentTimeMillis();
         this.reason = reason;
         this.jailedBy = jailedBy;
     }
 
+    public PlayerJailData(PlayerJailData other) {
+        this.playerUuid = other.playerUuid;
+        this.playerName = other.playerName;
+        this.jailName = other.jailName;
+        this.jailTime = other.jailTime;
+        this.startMillis = other.startMillis;
+        this.reason = other.reason;
+        this.jailedBy = other.jailedBy;
+        this.pending = other.pending;
+        this.previousWorldName = other.previousWorldName;
+        this.previousX = other.previousX;
+        this.previousY = other.previousY;
+        this.previousZ = other.previousZ;
+        this.previousYaw = other.previousYaw;
+        this.previousPitch = other.previousPitch;
+    }
+
     public void setPreviousLocation(Location location) {
         if (location != null) {
             this.previousWorldName = location.getWorld().getName();
@@ -39,34 +58,61 @@ public class PlayerJailData {
             this.previousZ = location.getZ();
             this.previousYaw = location.getYaw();
             this.previousPitch = location.getPitch();
+            previousLocation.invalidate();
         }
     }
 
+    public void setPreviousLocation(String worldName, double x, double y, double z, float yaw, float pitch) {
+        this.previousWorldName = worldName;
+        this.previousX = x;
+        this.previousY = y;
+        this.previousZ = z;
+        this.previousYaw = yaw;
+        this.previousPitch = pitch;
+        previousLocation.invalidate();
+    }
+
     public Location getPreviousLocation() {
         if (previousWorldName == null) {
             return null;
         }
 
-        World world = Bukkit.getWorld(previousWorldName);
-        if (world == null) {
-            return null;
-        }
-
-        return new Location(world, previousX, previousY, previousZ, previousYaw, previousPitch);
+        return previousLocation.get(previousWorldName, previousX, previousY, previousZ, previousYaw, previousPitch);
     }
 
     public long getRemainingTime() {
-        long currentTime = System.currentTimeMillis() / 1000;
-        long elapsed = currentTime - startTime;
-        return Math.max(0, jailTime - elapsed);
+        if (pending) {
+            return jailTime;
+        }
+
+        long releaseTime = getReleaseTime();
+        if (releaseTime == Long.MAX_VALUE) {
+            return Math.max(0, jailTime - (System.currentTimeMillis() - startMillis) / 1000);
+        }
+
+        // Rounded up, so the prisoner only counts as expired once the release deadline has passed
+        long remainingMillis = releaseTime - System.currentTimeMillis();
+        return remainingMillis > 0 ? (remainingMillis + 999) / 1000 : 0;
     }
 
     public boolean isExpired() {
         return getRemainingTime() <= 0;
     }
 
+    // Epoch millis of the release, Long.MAX_VALUE for permanent sentences
+    public long getReleaseTime() {
+        if (pending || jailTime >= (Long.MAX_VALUE - startMillis) / 1000) {
+            return Long.MAX_VALUE;
+        }
+        return startMillis + jailTime * 1000;
+    }
+
     public void addTime(long seconds) {
-        this.jailTime += seconds;
+        if (jailTime > Long.MAX_VALUE - seconds) {
+            this.jailTime = Long.MAX_VALUE;
+        } else {
+            this.jailTime += seconds;
+        }
     }
 
     public void subtractTime(long seconds) {
@@ -75,22 +121,44 @@ public class PlayerJailData {
 
     public void setTime(long seconds) {
         this.jailTime = seconds;
-        this.startTime = System.currentTimeMillis() / 1000;
+        this.startMillis = System.currentTimeMillis();
+    }
+
+    // Starts the sentence of a pending prisoner from now
+    public void start() {
+        this.pending = false;
+        this.startMillis = System.currentTimeMillis();
     }
 
     // Getters and setters
     public UUID getPlayerUuid() { return playerUuid; }
+    // Empty for players jailed by UUID whose name is not known until they join
     public String getPlayerName() { return playerName; }
-    public void setPlayerName(String playerName) { this.playerName = playerName; }
+    public void setPlayerName(String playerName) { this.playerName = playerName != null ? playerName : ""; }
+
+    public String getDisplayName() {
+        return playerName.isEmpty() ? playerUuid.toString() : playerName;
+    }
     public String getJailName() { return jailName; }
     public void setJailName(String jailName) { this.jailName = jailName; }
     public long getJailTime() { return jailTime; }
-    public long getStartTime() { return startTime; }
-    public void setStartTime(long startTime) { this.startTime = startTime; }
+    // Start in epoch seconds, kept for display and older data
+    public long getStartTime() { return startMillis / 1000; }
+    public void setStartTime(long startTime) { this.startMillis = startTime * 1000; }
+    public long getStartMillis() { return startMillis; }
+    public void setStartMillis(long startMillis) { this.startMillis = startMillis; }
     public String getReason() { return reason; }
     public void setReason(String reason) { this.reason = reason; }
     public String getJailedBy() { return jailedBy; }
     public void setJailedBy(String jailedBy) { this.jailedBy = jailedBy; }
+    public boolean isPending() { return pending; }
+    public void setPending(boolean pending) { this.pending = pending; }
+    public String getPreviousWorldName() { return previousWorldName; }
+    public double getPreviousX() { return previousX; }
+    public double getPreviousY() { return previousY; }
+    public double getPreviousZ() { return previousZ; }
+    public float getPreviousYaw() { return previousYaw; }
+    public float getPreviousPitch() { return previousPitch; }
 
     @Override
     public String toString() {
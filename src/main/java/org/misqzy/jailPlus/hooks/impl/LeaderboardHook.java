@@ -0,0 +1,90 @@
+package org.misqzy.jailPlus.hooks.impl;
+
+import org.bukkit.OfflinePlayer;
+import org.jetbrains.annotations.Nullable;
+import org.misqzy.jailPlus.JailPlus;
+import org.misqzy.jailPlus.hooks.PlaceholderHook;
+import org.misqzy.jailPlus.managers.StatisticsManager;
+import org.misqzy.jailPlus.managers.StatisticsManager.LeaderboardMetric;
+import org.misqzy.jailPlus.utils.Leaderboard;
+
+
+/**
+ * %jailplus_top_<metric>_<rank>_name% and %jailplus_top_<metric>_<rank>_value%.
+ * Parsed in place and answered from the leaderboard snapshot, so rendering does not allocate.
+ */
+public class LeaderboardHook implements PlaceholderHook {
+
+    private static final String PREFIX = "top_";
+    private static final String NAME_SUFFIX = "_name";
+    private static final String VALUE_SUFFIX = "_value";
+
+    private final JailPlus plugin;
+    private final StatisticsManager statisticsManager;
+
+    public LeaderboardHook(JailPlus plugin) {
+        this.plugin = plugin;
+        this.statisticsManager = plugin.getStatisticsManager();
+    }
+
+    @Override
+    public @Nullable String onPlaceholderRequest(OfflinePlayer player, String params) {
+        if (statisticsManager == null || !params.startsWith(PREFIX)) {
+            return null;
+        }
+
+        boolean name;
+        int end;
+        if (params.endsWith(NAME_SUFFIX)) {
+            name = true;
+            end = params.length() - NAME_SUFFIX.length();
+        } else if (params.endsWith(VALUE_SUFFIX)) {
+            name = false;
+            end = params.length() - VALUE_SUFFIX.length();
+        } else {
+            return null;
+        }
+
+        LeaderboardMetric metric = null;
+        int position = PREFIX.length();
+        for (LeaderboardMetric candidate : LeaderboardMetric.values()) {
+            String key = candidate.getKey();
+            if (params.startsWith(key, position) && params.length() > position + key.length()
+                    && params.charAt(position + key.length()) == '_') {
+                metric = candidate;
+                position += key.length() + 1;
+                break;
+            }
+        }
+
+        if (metric == null || position >= end) {
+            return null;
+        }
+
+        int rank = 0;
+        for (int i = position; i < end; i++) {
+            char c = params.charAt(i);
+            if (c < '0' || c > '9' || rank > 100_000) {
+                return null;
+            }
+            rank = rank * 10 + (c - '0');
+        }
+
+        Leaderboard leaderboard = statisticsManager.getLeaderboard(metric);
+        if (leaderboard == null) {
+            return "";
+        }
+
+        return name ? leaderboard.getName(rank) : leaderboard.getValue(rank);
+    }
+
+    @Override
+    public String getHookPrefix() {
+        return "top";
+    }
+
+    @Override
+    public String getDescription() {
+        return "Server-wide statistics leaderboards";
+    }
+}
@@ -5,51 +5,108 @@ import org.jetbrains.annotations.Nullable;
 import org.misqzy.jailPlus.JailPlus;
 import org.misqzy.jailPlus.hooks.PlaceholderHook;
 import org.misqzy.jailPlus.managers.StatisticsManager;
+import org.misqzy.jailPlus.managers.StatisticsStore;
+
+import java.util.Locale;
+import java.util.Map;
 
 
 public class StatisticsHook implements PlaceholderHook {
 
+    private enum Stat {
+        TOTAL_JAIL_TIME, TIMES_JAILED, WORST_JAIL_TIME, IS_FREQUENT_OFFENDER, AVERAGE_JAIL_TIME, LAST_JAIL_REASON
+    }
+
+    private static final Map<String, Stat> STATS = Map.of(
+            "stats_total_jail_time", Stat.TOTAL_JAIL_TIME,
+            "stats_times_jailed", Stat.TIMES_JAILED,
+            "stats_worst_jail_time", Stat.WORST_JAIL_TIME,
+            "stats_is_frequent_offender", Stat.IS_FREQUENT_OFFENDER,
+            "stats_average_jail_time", Stat.AVERAGE_JAIL_TIME,
+            "stats_last_jail_reason", Stat.LAST_JAIL_REASON
+    );
+
+    // %jailplus_stats_jailed_last_<days>d%
+    private static final String JAILED_LAST_PREFIX = "stats_jailed_last_";
+
+    private static final String[] SMALL_NUMBERS = new String[256];
+
+    static {
+        for (int i = 0; i < SMALL_NUMBERS.length; i++) {
+            SMALL_NUMBERS[i] = String.valueOf(i);
+        }
+    }
+
     private final JailPlus plugin;
-    private final StatisticsManager statisticsManager;
+    private final StatisticsStore store;
 
     public StatisticsHook(JailPlus plugin) {
+        this(plugin, plugin.getStatisticsManager() != null ? plugin.getStatisticsManager().getStore() : null);
+    }
+
+    public StatisticsHook(JailPlus plugin, @Nullable StatisticsStore store) {
         this.plugin = plugin;
-        this.statisticsManager = plugin.getStatisticsManager();
+        this.store = store;
     }
 
     @Override
     public @Nullable String onPlaceholderRequest(OfflinePlayer player, String params) {
-        if (!params.startsWith("stats_")) {
-            return null;
+        // Exact match first so the common lower case request needs no copy
+        Stat stat = STATS.get(params);
+        if (stat == null) {
+            if (params.regionMatches(true, 0, JAILED_LAST_PREFIX, 0, JAILED_LAST_PREFIX.length())) {
+                return jailedInLastDays(player, params);
+            }
+            if (!params.regionMatches(true, 0, "stats_", 0, "stats_".length())) {
+                return null;
+            }
+            stat = STATS.get(params.toLowerCase(Locale.ROOT));
+            if (stat == null) {
+                return null;
+            }
         }
 
-        if (statisticsManager == null) {
+        if (store == null) {
             return "0"; // Fallback if statistics are disabled
         }
 
-        String statParam = params.substring("stats_".length());
-
-        switch (statParam.toLowerCase()) {
-            case "total_jail_time":
-                return String.valueOf(statisticsManager.getTotalJailTime(player.getUniqueId()));
+        StatisticsManager.PlayerStatistics stats = store.getStatistics(player.getUniqueId());
 
-            case "times_jailed":
-                return String.valueOf(statisticsManager.getTimesJailed(player.getUniqueId()));
+        return switch (stat) {
+            case TOTAL_JAIL_TIME -> stats.getTotalJailTimeText();
+            case TIMES_JAILED -> stats.getTimesJailedText();
+            case WORST_JAIL_TIME -> stats.getLongestJailTimeText();
+            case IS_FREQUENT_OFFENDER -> store.isFrequentOffender(player.getUniqueId()) ? "true" : "false";
+            case AVERAGE_JAIL_TIME -> stats.getAverageJailTimeText();
+            case LAST_JAIL_REASON -> stats.getLastJailReason();
+        };
+    }
 
-            case "worst_jail_time":
-                return String.valueOf(statisticsManager.getLongestJailTime(player.getUniqueId()));
+    private @Nullable String jailedInLastDays(OfflinePlayer player, String params) {
+        int end = params.length() - 1;
+        if (end <= JAILED_LAST_PREFIX.length() || Character.toLowerCase(params.charAt(end)) != 'd') {
+            return null;
+        }
 
-            case "is_frequent_offender":
-                return statisticsManager.isFrequentOffender(player.getUniqueId()) ? "true" : "false";
+        int days = 0;
+        for (int i = JAILED_LAST_PREFIX.length(); i < end; i++) {
+            char c = params.charAt(i);
+            if (c < '0' || c > '9' || days > StatisticsManager.HISTORY_DAYS) {
+                return null;
+            }
+            days = days * 10 + (c - '0');
+        }
 
-            case "average_jail_time":
-                return String.valueOf(statisticsManager.getAverageJailTime(player.getUniqueId()));
+        if (days < 1 || days > StatisticsManager.HISTORY_DAYS) {
+            return null;
+        }
 
-            case "last_jail_reason":
-                return statisticsManager.getLastJailReason(player.getUniqueId());
+        if (store == null) {
+            return "0";
         }
 
-        return null;
+        int count = store.getJailCountInLastDays(player.getUniqueId(), days);
+        return count < SMALL_NUMBERS.length ? SMALL_NUMBERS[count] : String.valueOf(count);
     }
 
     @Override
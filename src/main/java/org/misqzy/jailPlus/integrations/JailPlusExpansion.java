@@ -10,8 +10,12 @@ import org.misqzy.jailPlus.hooks.PlaceholderHook;
 import org.misqzy.jailPlus.managers.JailManager;
 import org.misqzy.jailPlus.utils.TimeUtils;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class JailPlusExpansion extends PlaceholderExpansion {
 
@@ -19,14 +23,22 @@ public class JailPlusExpansion extends PlaceholderExpansion {
     private final JailManager jailManager;
     private final Map<String, PlaceholderHook> customHooks;
 
-    private final Map<String, String> cache;
-    private long lastCacheClean = 0;
+    // Copy-on-write view of customHooks for the request path
+    private record HookTable(String[] prefixes, PlaceholderHook[] hooks) {
+    }
+
+    private volatile HookTable hookTable = new HookTable(new String[0], new PlaceholderHook[0]);
+
+    private final PlaceholderCache cache;
 
     public JailPlusExpansion(JailPlus plugin) {
         this.plugin = plugin;
         this.jailManager = plugin.getJailManager();
-        this.customHooks = new HashMap<>();
-        this.cache = new HashMap<>();
+        this.customHooks = new ConcurrentHashMap<>();
+        this.cache = new PlaceholderCache(
+                plugin.getConfigManager().getPlaceholderCacheTime(),
+                plugin.getConfigManager().getPlaceholderCacheMaxSize()
+        );
     }
 
     @Override
@@ -55,27 +67,30 @@ public class JailPlusExpansion extends PlaceholderExpansion {
             return "";
         }
 
-        cleanCacheIfNeeded();
-
-
-        String cacheKey = player.getUniqueId() + ":" + params;
-        if (plugin.getConfigManager().isCachePlaceholders() && cache.containsKey(cacheKey)) {
-            return cache.get(cacheKey);
+        boolean useCache = plugin.getConfigManager().isCachePlaceholders();
+        if (useCache) {
+            String cached = cache.get(player.getUniqueId(), params);
+            if (cached != null) {
+                return cached;
+            }
         }
 
         String result = processPlaceholder(player, params);
 
-        if (plugin.getConfigManager().isCachePlaceholders() && result != null) {
-            cache.put(cacheKey, result);
+        if (useCache && result != null) {
+            cache.put(player.getUniqueId(), params, result);
         }
 
         return result != null ? result : "";
     }
 
     private String processPlaceholder(OfflinePlayer player, String params) {
-        for (Map.Entry<String, PlaceholderHook> entry : customHooks.entrySet()) {
-            if (params.startsWith(entry.getKey())) {
-                String result = entry.getValue().onPlaceholderRequest(player, params);
+        HookTable table = hookTable;
+        String[] prefixes = table.prefixes();
+        PlaceholderHook[] hooks = table.hooks();
+        for (int i = 0; i < prefixes.length; i++) {
+            if (params.startsWith(prefixes[i])) {
+                String result = hooks[i].onPlaceholderRequest(player, params);
                 if (result != null) {
                     return result;
                 }
@@ -107,10 +122,10 @@ public class JailPlusExpansion extends PlaceholderExpansion {
                 return jailData != null ? jailData.getJailedBy() : "";
 
             case "jail_count":
-                return String.valueOf(jailManager.getAllJails().size());
+                return String.valueOf(jailManager.getJailCount());
 
             case "prisoner_count":
-                return String.valueOf(jailManager.getAllJailedPlayers().size());
+                return String.valueOf(jailManager.getPrisonerCount());
 
             case "player_start_time":
                 if (jailData != null) {
@@ -129,10 +144,7 @@ public class JailPlusExpansion extends PlaceholderExpansion {
 
         if (params.startsWith("jail_prisoners_")) {
             String jailName = params.substring("jail_prisoners_".length());
-            long count = jailManager.getAllJailedPlayers().stream()
-                    .filter(data -> data.getJailName().equalsIgnoreCase(jailName))
-                    .count();
-            return String.valueOf(count);
+            return String.valueOf(jailManager.getPrisonerCount(jailName));
         }
 
         if (params.startsWith("jail_exists_")) {
@@ -143,24 +155,30 @@ public class JailPlusExpansion extends PlaceholderExpansion {
         return null;
     }
 
-    private void cleanCacheIfNeeded() {
-        long now = System.currentTimeMillis();
-        if (now - lastCacheClean > plugin.getConfigManager().getPlaceholderCacheTime()) {
-            cache.clear();
-            lastCacheClean = now;
-        }
-    }
-
     public void registerHook(String prefix, PlaceholderHook hook) {
         customHooks.put(prefix.toLowerCase(), hook);
+        rebuildHookArrays();
         plugin.getLogger().info("Custom placeholder hook registered: " + prefix);
     }
 
     public void unregisterHook(String prefix) {
         customHooks.remove(prefix.toLowerCase());
+        rebuildHookArrays();
         plugin.getLogger().info("Custom placeholder hook deleted: " + prefix);
     }
 
+    private synchronized void rebuildHookArrays() {
+        List<Map.Entry<String, PlaceholderHook>> entries = new ArrayList<>(customHooks.entrySet());
+        String[] prefixes = new String[entries.size()];
+        PlaceholderHook[] hooks = new PlaceholderHook[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            prefixes[i] = entries.get(i).getKey();
+            hooks[i] = entries.get(i).getValue();
+        }
+
+        hookTable = new HookTable(prefixes, hooks);
+    }
+
     public Map<String, PlaceholderHook> getHooks() {
         return new HashMap<>(customHooks);
     }
@@ -168,4 +186,12 @@ public class JailPlusExpansion extends PlaceholderExpansion {
     public void clearCache() {
         cache.clear();
     }
+
+    public void invalidateCache(UUID playerUuid) {
+        cache.invalidate(playerUuid);
+    }
+
+    public PlaceholderCache getCache() {
+        return cache;
+    }
 }
\ No newline at end of file
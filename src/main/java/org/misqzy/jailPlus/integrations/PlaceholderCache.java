@@ -0,0 +1,150 @@
+package org.misqzy.jailPlus.integrations;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded placeholder cache safe for PlaceholderAPI's async callers.
+ * Entries are grouped per player and keyed by the params string, so lookups need no key allocation,
+ * and each entry expires on its own instead of the whole cache being wiped at once.
+ */
+public class PlaceholderCache {
+
+    private final Map<UUID, Map<String, Entry>> entries;
+    private final AtomicInteger size;
+    private final AtomicBoolean sweeping;
+
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    private final long ttlMillis;
+    private final int maxSize;
+
+    public PlaceholderCache(long ttlMillis, int maxSize) {
+        this.entries = new ConcurrentHashMap<>();
+        this.size = new AtomicInteger();
+        this.sweeping = new AtomicBoolean(false);
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+        this.ttlMillis = Math.max(0L, ttlMillis);
+        this.maxSize = Math.max(1, maxSize);
+    }
+
+    public String get(UUID playerUuid, String params) {
+        Map<String, Entry> playerEntries = entries.get(playerUuid);
+        if (playerEntries != null) {
+            Entry entry = playerEntries.get(params);
+            if (entry != null) {
+                if (entry.expiresAt > System.currentTimeMillis()) {
+                    hits.increment();
+                    return entry.value;
+                }
+
+                if (playerEntries.remove(params, entry)) {
+                    size.decrementAndGet();
+                }
+            }
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    public void put(UUID playerUuid, String params, String value) {
+        Entry entry = new Entry(value, System.currentTimeMillis() + ttlMillis);
+        Entry previous = entries.computeIfAbsent(playerUuid, uuid -> new ConcurrentHashMap<>()).put(params, entry);
+
+        if (previous == null && size.incrementAndGet() > maxSize) {
+            sweep();
+        }
+    }
+
+    public void invalidate(UUID playerUuid) {
+        Map<String, Entry> removed = entries.remove(playerUuid);
+        if (removed != null) {
+            size.addAndGet(-removed.size());
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+        size.set(0);
+    }
+
+    // Drops expired entries first, then arbitrary ones down to 90% of the limit
+    private void sweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            long now = System.currentTimeMillis();
+            int target = maxSize - maxSize / 10;
+            int remaining = 0;
+
+            for (Iterator<Map<String, Entry>> players = entries.values().iterator(); players.hasNext(); ) {
+                Map<String, Entry> playerEntries = players.next();
+                playerEntries.values().removeIf(entry -> entry.expiresAt <= now);
+                if (playerEntries.isEmpty()) {
+                    players.remove();
+                }
+                remaining += playerEntries.size();
+            }
+
+            for (Iterator<Map<String, Entry>> players = entries.values().iterator(); players.hasNext() && remaining > target; ) {
+                Map<String, Entry> playerEntries = players.next();
+                for (Iterator<Entry> it = playerEntries.values().iterator(); it.hasNext() && remaining > target; ) {
+                    it.next();
+                    it.remove();
+                    remaining--;
+                    evictions.increment();
+                }
+                if (playerEntries.isEmpty()) {
+                    players.remove();
+                }
+            }
+
+            // Recount so concurrent puts cannot make the counter drift
+            int actual = 0;
+            for (Map<String, Entry> playerEntries : entries.values()) {
+                actual += playerEntries.size();
+            }
+            size.set(actual);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    private static final class Entry {
+        private final String value;
+        private final long expiresAt;
+
+        private Entry(String value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -1,35 +1,36 @@
 package org.misqzy.jailPlus.listeners;
 
 import net.kyori.adventure.text.Component;
+import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
-import org.bukkit.event.block.BlockBreakEvent;
-import org.bukkit.event.block.BlockPlaceEvent;
-import org.bukkit.event.entity.EntityDamageByEntityEvent;
-import org.bukkit.event.inventory.InventoryOpenEvent;
 import org.bukkit.event.player.*;
 import org.misqzy.jailPlus.JailPlus;
+import org.misqzy.jailPlus.data.JailData;
 import org.misqzy.jailPlus.data.PlayerJailData;
 import org.misqzy.jailPlus.managers.ConfigManager;
 import org.misqzy.jailPlus.managers.JailManager;
 import org.misqzy.jailPlus.managers.LocalizationManager;
+import org.misqzy.jailPlus.managers.RestrictionManager;
 import org.misqzy.jailPlus.utils.TimeUtils;
 
-import java.util.List;
 import java.util.Set;
 
 public class PlayerListener implements Listener {
 
     private final JailPlus plugin;
     private final JailManager jailManager;
+    private final RestrictionManager restrictionManager;
     private final LocalizationManager localizationManager;
     private final ConfigManager configManager;
 
-    public PlayerListener(JailPlus plugin, JailManager jailManager, LocalizationManager localizationManager, ConfigManager configManager) {
+    public PlayerListener(JailPlus plugin, JailManager jailManager, RestrictionManager restrictionManager,
+                          LocalizationManager localizationManager, ConfigManager configManager) {
         this.plugin = plugin;
         this.jailManager = jailManager;
+        this.restrictionManager = restrictionManager;
         this.localizationManager = localizationManager;
         this.configManager = configManager;
     }
@@ -41,15 +42,24 @@ public class PlayerListener implements Listener {
         if (jailManager.isPlayerJailed(player)) {
             PlayerJailData jailData = jailManager.getJailData(player);
 
+            if (jailData.isPending()) {
+                jailManager.updatePlayerName(jailData, player.getName());
+                jailManager.applyPendingJail(player, jailData);
+                return;
+            }
+
             if (jailData.isExpired()) {
                 jailManager.unjailPlayer(player.getUniqueId());
                 return;
             }
 
+            jailManager.updatePlayerName(jailData, player.getName());
+            restrictionManager.update(player);
+
             // Teleport to jail
-            String jailName = jailData.getJailName();
-            if (jailManager.getJail(jailName) != null) {
-                player.teleport(jailManager.getJail(jailName).getLocation());
+            JailData jail = jailManager.getJail(jailData.getJailName());
+            if (jail != null) {
+                jailManager.teleport(player, jail.getLocation());
             }
 
             if (configManager.isScoreboardEnabled()) {
@@ -69,10 +79,7 @@ public class PlayerListener implements Listener {
     @EventHandler(priority = EventPriority.HIGH)
     public void onPlayerQuit(PlayerQuitEvent event) {
         Player player = event.getPlayer();
-
-        if (jailManager.isPlayerJailed(player)) {
-            jailManager.savePlayers();
-        }
+        restrictionManager.remove(player.getUniqueId());
 
         if (configManager.isScoreboardEnabled()) {
             if (plugin.getScoreboardManager() != null) {
@@ -93,138 +100,10 @@ public class PlayerListener implements Listener {
                 return;
             }
 
-            String jailName = jailData.getJailName();
-            if (jailManager.getJail(jailName) != null) {
-                event.setRespawnLocation(jailManager.getJail(jailName).getLocation());
-            }
-        }
-    }
-
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onPlayerCommand(PlayerCommandPreprocessEvent event) {
-        if (!configManager.isPreventCommandUsage()) {
-            return;
-        }
-
-        Player player = event.getPlayer();
-
-        if (!jailManager.isPlayerJailed(player)) {
-            return;
-        }
-
-        // Bypass for players with permission
-        if (player.hasPermission("jailplus.bypass")) {
-            return;
-        }
-
-        String command = event.getMessage().toLowerCase();
-        String[] parts = command.split(" ");
-        String commandName = parts[0].substring(1);
-        List<String> unblockedCommands = configManager.getUnblockedCommands();
-        unblockedCommands.add("jail");
-
-        // Check unblocked commands
-        for (String allowed : unblockedCommands) {
-            if (commandName.equals(allowed) || commandName.startsWith(allowed + ":")) {
-                return;
-            }
-        }
-
-        // Block the command
-        event.setCancelled(true);
-        localizationManager.sendMessage(player, "jail.command-blocked");
-    }
-
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onPlayerTeleport(PlayerTeleportEvent event) {
-        if (!configManager.isPreventTeleport()) {
-            return;
-        }
-
-        Player player = event.getPlayer();
-
-        if (!jailManager.isPlayerJailed(player)) {
-            return;
-        }
-
-        // Bypass for players with permission
-        if (player.hasPermission("jailplus.bypass")) {
-            return;
-        }
-
-        // Allow teleport by plugin (for unjailing, etc.)
-        if (event.getCause() == PlayerTeleportEvent.TeleportCause.PLUGIN) {
-            return;
-        }
-
-        event.setCancelled(true);
-        localizationManager.sendMessage(player, "jail.teleport-blocked");
-    }
-
-    @EventHandler(priority = EventPriority.HIGH)
-    public void onBlockBreak(BlockBreakEvent event) {
-        if (!configManager.isPreventBlockBreak()) {
-            return;
-        }
-
-        Player player = event.getPlayer();
-
-        if (jailManager.isPlayerJailed(player) && !player.hasPermission("jailplus.bypass")) {
-            event.setCancelled(true);
-            localizationManager.sendMessage(player, "jail.action-blocked");
-        }
-    }
-
-    @EventHandler(priority = EventPriority.HIGH)
-    public void onBlockPlace(BlockPlaceEvent event) {
-        if (!configManager.isPreventBlockPlace()) {
-            return;
-        }
-
-        Player player = event.getPlayer();
-
-        if (jailManager.isPlayerJailed(player) && !player.hasPermission("jailplus.bypass")) {
-            event.setCancelled(true);
-            localizationManager.sendMessage(player, "jail.action-blocked");
-        }
-    }
-
-    @EventHandler(priority = EventPriority.HIGH)
-    public void onEntityDamageByEntity(EntityDamageByEntityEvent event) {
-        if (!configManager.isPreventPvP()) {
-            return;
-        }
-
-        if (event.getDamager() instanceof Player attacker) {
-            if (jailManager.isPlayerJailed(attacker) && !attacker.hasPermission("jailplus.bypass")) {
-                event.setCancelled(true);
-                localizationManager.sendMessage(attacker, "jail.pvp-blocked");
-                return;
-            }
-        }
-
-        if (event.getEntity() instanceof Player victim) {
-            if (jailManager.isPlayerJailed(victim) && event.getDamager() instanceof Player attacker) {
-                if (!jailManager.isPlayerJailed(attacker) && configManager.isPreventDamageToPrisoners()) {
-                    event.setCancelled(true);
-                    localizationManager.sendMessage(attacker, "jail.cannot-attack-prisoner");
-                }
-            }
-        }
-    }
-
-    @EventHandler(priority = EventPriority.HIGH)
-    public void onInventoryOpen(InventoryOpenEvent event) {
-        if (!configManager.isPreventInventory()) {
-            return;
-        }
-
-        if (event.getPlayer() instanceof Player player) {
-            if (jailManager.isPlayerJailed(player) && !player.hasPermission("jailplus.bypass")) {
-                if (!event.getInventory().equals(player.getInventory())) {
-                    event.setCancelled(true);
-                    localizationManager.sendMessage(player, "jail.inventory-blocked");
-                }
+            JailData jail = jailManager.getJail(jailData.getJailName());
+            Location jailLocation = jail != null ? jail.getLocation() : null;
+            if (jailLocation != null) {
+                event.setRespawnLocation(jailLocation);
             }
         }
     }
@@ -0,0 +1,179 @@
+package org.misqzy.jailPlus.listeners;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.misqzy.jailPlus.data.JailData;
+import org.misqzy.jailPlus.managers.JailManager;
+import org.misqzy.jailPlus.managers.LocalizationManager;
+import org.misqzy.jailPlus.managers.RestrictionManager;
+import org.misqzy.jailPlus.managers.TeleportManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Prisoner restriction handlers. Not annotated: {@link RestrictionManager} registers each of them
+ * only while an online prisoner is subject to that restriction.
+ */
+public class RestrictionListener {
+
+    private static final long ESCAPE_MESSAGE_COOLDOWN = 2000L;
+
+    private final RestrictionManager restrictionManager;
+    private final JailManager jailManager;
+    private final TeleportManager teleportManager;
+    private final LocalizationManager localizationManager;
+
+    // Walking into the boundary is pushed back every move, the message is not repeated that often
+    private final Map<UUID, Long> escapeMessages = new HashMap<>();
+
+    public RestrictionListener(RestrictionManager restrictionManager, JailManager jailManager,
+                               TeleportManager teleportManager, LocalizationManager localizationManager) {
+        this.restrictionManager = restrictionManager;
+        this.jailManager = jailManager;
+        this.teleportManager = teleportManager;
+        this.localizationManager = localizationManager;
+    }
+
+    public void onPlayerMove(PlayerMoveEvent event) {
+        Location from = event.getFrom();
+        Location to = event.getTo();
+
+        // Looking around or moving inside the same block cannot leave the region
+        int toX = to.getBlockX();
+        int toY = to.getBlockY();
+        int toZ = to.getBlockZ();
+        if (toX == from.getBlockX() && toY == from.getBlockY() && toZ == from.getBlockZ()
+                && to.getWorld() == from.getWorld()) {
+            return;
+        }
+
+        Player player = event.getPlayer();
+        RestrictionManager.Confinement confinement = restrictionManager.getConfinement(player);
+        if (confinement == null) {
+            return;
+        }
+
+        if (to.getWorld().getName().equals(confinement.worldName()) && confinement.region().contains(toX, toY, toZ)) {
+            return;
+        }
+
+        if (from.getWorld().getName().equals(confinement.worldName())
+                && confinement.region().contains(from.getBlockX(), from.getBlockY(), from.getBlockZ())) {
+            Location back = from.clone();
+            back.setYaw(to.getYaw());
+            back.setPitch(to.getPitch());
+            event.setTo(back);
+        } else {
+            // Already outside, e.g. the region was changed while the prisoner was online or a jail teleport is pending
+            event.setCancelled(true);
+            if (teleportManager.isTeleporting(player)) {
+                return;
+            }
+
+            JailData jail = jailManager.getJail(confinement.jailName());
+            if (jail != null) {
+                teleportManager.teleport(player, jail.getLocation());
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        Long lastMessage = escapeMessages.get(player.getUniqueId());
+        if (lastMessage == null || now - lastMessage >= ESCAPE_MESSAGE_COOLDOWN) {
+            escapeMessages.put(player.getUniqueId(), now);
+            localizationManager.sendMessage(player, "jail.escape-blocked");
+        }
+    }
+
+    public void forget(UUID playerUuid) {
+        escapeMessages.remove(playerUuid);
+    }
+
+    public void onPlayerCommand(PlayerCommandPreprocessEvent event) {
+        Player player = event.getPlayer();
+
+        if (!restrictionManager.has(player, RestrictionManager.COMMANDS)) {
+            return;
+        }
+
+        if (restrictionManager.isCommandAllowed(event.getMessage())) {
+            return;
+        }
+
+        // Block the command
+        event.setCancelled(true);
+        localizationManager.sendMessage(player, "jail.command-blocked");
+    }
+
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        Player player = event.getPlayer();
+
+        if (!restrictionManager.has(player, RestrictionManager.TELEPORT)) {
+            return;
+        }
+
+        // Allow teleport by plugin (for unjailing, etc.)
+        if (event.getCause() == PlayerTeleportEvent.TeleportCause.PLUGIN) {
+            return;
+        }
+
+        event.setCancelled(true);
+        localizationManager.sendMessage(player, "jail.teleport-blocked");
+    }
+
+    public void onBlockBreak(BlockBreakEvent event) {
+        Player player = event.getPlayer();
+
+        if (restrictionManager.has(player, RestrictionManager.BLOCK_BREAK)) {
+            event.setCancelled(true);
+            localizationManager.sendMessage(player, "jail.action-blocked");
+        }
+    }
+
+    public void onBlockPlace(BlockPlaceEvent event) {
+        Player player = event.getPlayer();
+
+        if (restrictionManager.has(player, RestrictionManager.BLOCK_PLACE)) {
+            event.setCancelled(true);
+            localizationManager.sendMessage(player, "jail.action-blocked");
+        }
+    }
+
+    public void onEntityDamageByEntity(EntityDamageByEntityEvent event) {
+        if (!(event.getDamager() instanceof Player attacker)) {
+            return;
+        }
+
+        if (restrictionManager.has(attacker, RestrictionManager.PVP)) {
+            event.setCancelled(true);
+            localizationManager.sendMessage(attacker, "jail.pvp-blocked");
+            return;
+        }
+
+        if (event.getEntity() instanceof Player victim
+                && restrictionManager.has(victim, RestrictionManager.PROTECTED)
+                && !restrictionManager.has(attacker, RestrictionManager.JAILED)) {
+            event.setCancelled(true);
+            localizationManager.sendMessage(attacker, "jail.cannot-attack-prisoner");
+        }
+    }
+
+    public void onInventoryOpen(InventoryOpenEvent event) {
+        if (event.getPlayer() instanceof Player player) {
+            if (restrictionManager.has(player, RestrictionManager.INVENTORY)) {
+                if (!event.getInventory().equals(player.getInventory())) {
+                    event.setCancelled(true);
+                    localizationManager.sendMessage(player, "jail.inventory-blocked");
+                }
+            }
+        }
+    }
+}
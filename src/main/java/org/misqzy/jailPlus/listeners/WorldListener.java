@@ -0,0 +1,43 @@
+package org.misqzy.jailPlus.listeners;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.misqzy.jailPlus.JailPlus;
+import org.misqzy.jailPlus.data.CachedLocation;
+import org.misqzy.jailPlus.managers.ChunkTicketManager;
+
+public class WorldListener implements Listener {
+
+    private final JailPlus plugin;
+
+    public WorldListener(JailPlus plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        CachedLocation.invalidateAll();
+
+        // Jails in worlds loaded after startup (e.g. by a world manager) get their tickets now
+        if (plugin.getJailManager() != null) {
+            plugin.getJailManager().refreshChunkTickets(event.getWorld());
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        // The world is still registered while the event runs, anything resolved until the
+        // unload completes would point at it, so the templates are dropped again on the next tick
+        CachedLocation.invalidateAll();
+        Bukkit.getScheduler().runTask(plugin, CachedLocation::invalidateAll);
+
+        ChunkTicketManager chunkTicketManager = plugin.getChunkTicketManager();
+        if (chunkTicketManager != null) {
+            chunkTicketManager.releaseWorld(event.getWorld());
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package org.misqzy.jailPlus.managers;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.misqzy.jailPlus.JailPlus;
+import org.misqzy.jailPlus.data.JailData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Plugin chunk tickets around jail points, so teleports into a jail find its chunks already loaded.
+ * Bukkit keeps a single ticket per plugin and chunk, so every holder (jails and in-flight teleports)
+ * goes through the reference count here and the ticket is only removed when the last one lets go.
+ * Tickets must be added and removed on the main thread.
+ */
+public class ChunkTicketManager {
+
+    public enum Mode {
+        // No tickets, jail chunks load on demand
+        NONE,
+        // Tickets while the jail holds at least one prisoner, online or not
+        OCCUPIED,
+        // Tickets for every jail
+        ALWAYS
+    }
+
+    private static final int MAX_RADIUS = 4;
+
+    private record ChunkKey(UUID world, int x, int z) {
+    }
+
+    private final JailPlus plugin;
+    private final ConfigManager configManager;
+
+    private final Map<ChunkKey, Integer> holders = new ConcurrentHashMap<>();
+
+    // Jail name (lower case) -> chunks held for it
+    private final Map<String, List<ChunkKey>> jailTickets = new ConcurrentHashMap<>();
+
+    private volatile Mode mode;
+    private volatile int radius;
+
+    public ChunkTicketManager(JailPlus plugin, ConfigManager configManager) {
+        this.plugin = plugin;
+        this.configManager = configManager;
+        loadSettings();
+    }
+
+    /**
+     * Re-reads mode and radius. Jail tickets are dropped and have to be re-applied with {@link #update}.
+     */
+    public void reload() {
+        releaseJails();
+        loadSettings();
+    }
+
+    private void loadSettings() {
+        String configured = configManager.getChunkTicketMode();
+        try {
+            mode = Mode.valueOf(configured.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Unknown chunk-tickets.mode '" + configured + "', using NONE");
+            mode = Mode.NONE;
+        }
+        radius = Math.max(0, Math.min(MAX_RADIUS, configManager.getChunkTicketRadius()));
+    }
+
+    /**
+     * Adds or removes the tickets of a jail to match the mode and whether it is occupied.
+     */
+    public void update(JailData jail, boolean occupied) {
+        boolean wanted = mode == Mode.ALWAYS || (mode == Mode.OCCUPIED && occupied);
+        String jailName = jail.getName().toLowerCase();
+
+        if (!wanted) {
+            release(jailName);
+            return;
+        }
+        if (jailTickets.containsKey(jailName)) {
+            return;
+        }
+
+        Location location = jail.getLocation();
+        World world = location != null ? location.getWorld() : null;
+        if (world == null) {
+            return;
+        }
+
+        int centerX = location.getBlockX() >> 4;
+        int centerZ = location.getBlockZ() >> 4;
+        List<ChunkKey> chunks = new ArrayList<>((2 * radius + 1) * (2 * radius + 1));
+        for (int x = centerX - radius; x <= centerX + radius; x++) {
+            for (int z = centerZ - radius; z <= centerZ + radius; z++) {
+                ChunkKey key = new ChunkKey(world.getUID(), x, z);
+                acquire(world, key);
+                chunks.add(key);
+            }
+        }
+        jailTickets.put(jailName, chunks);
+    }
+
+    public void release(String jailName) {
+        List<ChunkKey> chunks = jailTickets.remove(jailName.toLowerCase());
+        if (chunks == null) {
+            return;
+        }
+        for (ChunkKey key : chunks) {
+            release(key);
+        }
+    }
+
+    public void releaseJails() {
+        for (String jailName : List.copyOf(jailTickets.keySet())) {
+            release(jailName);
+        }
+    }
+
+    /**
+     * Forgets every ticket of an unloading world, the server drops the tickets themselves with it.
+     * Jails in that world get their tickets again through {@link #update} once it is loaded.
+     */
+    public void releaseWorld(World world) {
+        UUID worldId = world.getUID();
+        jailTickets.values().removeIf(chunks -> !chunks.isEmpty() && chunks.get(0).world().equals(worldId));
+        holders.keySet().removeIf(key -> key.world().equals(worldId));
+    }
+
+    public void acquire(World world, int chunkX, int chunkZ) {
+        acquire(world, new ChunkKey(world.getUID(), chunkX, chunkZ));
+    }
+
+    public void release(World world, int chunkX, int chunkZ) {
+        release(new ChunkKey(world.getUID(), chunkX, chunkZ));
+    }
+
+    private void acquire(World world, ChunkKey key) {
+        if (holders.merge(key, 1, Integer::sum) == 1) {
+            world.addPluginChunkTicket(key.x(), key.z(), plugin);
+        }
+    }
+
+    private void release(ChunkKey key) {
+        Integer remaining = holders.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+        if (remaining != null) {
+            return;
+        }
+
+        World world = Bukkit.getWorld(key.world());
+        if (world != null) {
+            world.removePluginChunkTicket(key.x(), key.z(), plugin);
+        }
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    public int getTicketCount() {
+        return holders.size();
+    }
+
+    public void shutdown() {
+        jailTickets.clear();
+        holders.clear();
+        for (World world : Bukkit.getWorlds()) {
+            world.removePluginChunkTickets(plugin);
+        }
+    }
+}
@@ -15,10 +15,12 @@ public class ConfigManager {
     private FileConfiguration config;
     private File configFile;
 
+    // Restriction flags are read on hot events, so they are snapshotted once per load
+    private volatile Restrictions restrictions;
+
     private static final String DEFAULT_LANGUAGE = "en";
     private static final int DEFAULT_MAX_JAIL_TIME = 86400;
     private static final boolean DEFAULT_BROADCAST_JAIL = true;
-    private static final int DEFAULT_CHECK_INTERVAL = 600; // 30 seconds
     private static final boolean DEFAULT_ENABLE_STATISTICS = true;
     private static final boolean DEFAULT_ENABLE_LOGGING = true;
     private static final boolean DEFAULT_ENABLE_PLACEHOLDERAPI = true;
@@ -37,6 +39,7 @@ public class ConfigManager {
 
         setDefaults();
         saveConfig();
+        loadRestrictions();
     }
 
     private void setDefaults() {
@@ -47,7 +50,6 @@ public class ConfigManager {
 
         // Jail settings
         config.addDefault("max-jail-time", DEFAULT_MAX_JAIL_TIME);
-        config.addDefault("check-interval", DEFAULT_CHECK_INTERVAL);
         config.addDefault("auto-release", true);
 
         // Broadcast settings
@@ -63,6 +65,7 @@ public class ConfigManager {
         config.addDefault("prevent-inventory", true);
         config.addDefault("prevent-teleport", true);
         config.addDefault("prevent-damage-to-prisoners", true);
+        config.addDefault("prevent-escape", true);
 
         config.addDefault("unblocked-commands", List.of(
                 "tell", "say", "msg", "server", "help", "rules"
@@ -70,8 +73,12 @@ public class ConfigManager {
 
         // Enhanced features
         config.addDefault("enable-logging", DEFAULT_ENABLE_LOGGING);
-        config.addDefault("max-log-entries", 1000);
+        config.addDefault("log-segments.max-size-kb", 4096);
+        config.addDefault("log-segments.max-age-hours", 24);
         config.addDefault("enable-statistics", DEFAULT_ENABLE_STATISTICS);
+        config.addDefault("leaderboard-size", 10);
+        config.addDefault("frequent-offender.threshold", 5);
+        config.addDefault("frequent-offender.window-days", 30);
         config.addDefault("notify-admins", true);
         config.addDefault("admin-notification-permission", "jailplus.admin.notify");
 
@@ -90,15 +97,26 @@ public class ConfigManager {
         config.addDefault("mysql.username", "user");
         config.addDefault("mysql.password", "password");
         config.addDefault("mysql.table-prefix", "jp_");
+        config.addDefault("sqlite.file", "jailplus.db");
+
+        // Storage settings
+        config.addDefault("storage.flush-interval", 40L);
+        config.addDefault("storage.pool-size", 4);
+
+        // Chunk tickets
+        config.addDefault("chunk-tickets.mode", "OCCUPIED");
+        config.addDefault("chunk-tickets.radius", 0);
 
         // PlaceholderAPI settings
         config.addDefault("enable-placeholderapi", DEFAULT_ENABLE_PLACEHOLDERAPI);
         config.addDefault("cache-placeholders", true);
         config.addDefault("placeholder-cache-time", 5000);
+        config.addDefault("placeholder-cache-max-size", 10000);
 
         // Scoreboard settings
         config.addDefault("scoreboard.enabled", DEFAULT_ENABLE_SCOREBOARD);
         config.addDefault("scoreboard.update-interval", 60L);
+        config.addDefault("scoreboard.max-updates-per-tick", 20);
         config.addDefault("scoreboard.show-jailed-by", false);
         config.addDefault("scoreboard.show-extra-info", true);
         config.addDefault("scoreboard.auto-hide-on-release", true);
@@ -133,6 +151,8 @@ public class ConfigManager {
 
     public void loadConfig() {
         config = YamlConfiguration.loadConfiguration(configFile);
+        loadRestrictions();
+        checkFrequentOffenderWindow();
 
         if (isDebugEnabled()) {
             plugin.getLogger().setLevel(Level.FINE);
@@ -159,10 +179,6 @@ public class ConfigManager {
         return config.getInt("max-jail-time", DEFAULT_MAX_JAIL_TIME);
     }
 
-    public int getCheckInterval() {
-        return config.getInt("check-interval", DEFAULT_CHECK_INTERVAL);
-    }
-
     public boolean isAutoRelease() {
         return config.getBoolean("auto-release", true);
     }
@@ -181,36 +197,71 @@ public class ConfigManager {
     }
 
     // Restrictions
+    public record Restrictions(boolean commandUsage, boolean blockBreak, boolean blockPlace, boolean pvp,
+                               boolean inventory, boolean teleport, boolean damageToPrisoners, boolean escape) {
+    }
+
+    private void loadRestrictions() {
+        restrictions = new Restrictions(
+                config.getBoolean("prevent-command-usage", true),
+                config.getBoolean("prevent-block-break", true),
+                config.getBoolean("prevent-block-place", true),
+                config.getBoolean("prevent-pvp", true),
+                config.getBoolean("prevent-inventory", true),
+                config.getBoolean("prevent-teleport", true),
+                config.getBoolean("prevent-damage-to-prisoners", true),
+                config.getBoolean("prevent-escape", true)
+        );
+    }
+
+    // Only HISTORY_DAYS days of history are kept, a longer window would silently count fewer jails
+    private void checkFrequentOffenderWindow() {
+        int windowDays = config.getInt("frequent-offender.window-days", 30);
+        int clamped = getFrequentOffenderWindowDays();
+        if (clamped != windowDays) {
+            plugin.getLogger().warning("frequent-offender.window-days must be between 0 and "
+                    + StatisticsManager.HISTORY_DAYS + ", using " + clamped + " instead of " + windowDays);
+        }
+    }
+
+    public Restrictions getRestrictions() {
+        return restrictions;
+    }
+
     public boolean isPreventCommandUsage() {
-        return config.getBoolean("prevent-command-usage", true);
+        return restrictions.commandUsage();
     }
 
     public boolean isPreventBlockBreak() {
-        return config.getBoolean("prevent-block-break", true);
+        return restrictions.blockBreak();
     }
 
     public boolean isPreventBlockPlace() {
-        return config.getBoolean("prevent-block-place", true);
+        return restrictions.blockPlace();
     }
 
     public boolean isPreventPvP() {
-        return config.getBoolean("prevent-pvp", true);
+        return restrictions.pvp();
     }
 
     public boolean isPreventInventory() {
-        return config.getBoolean("prevent-inventory", true);
+        return restrictions.inventory();
     }
 
     public boolean isPreventTeleport() {
-        return config.getBoolean("prevent-teleport", true);
+        return restrictions.teleport();
     }
 
     public boolean isPreventDamageToPrisoners() {
-        return config.getBoolean("prevent-damage-to-prisoners", true);
+        return restrictions.damageToPrisoners();
+    }
+
+    public boolean isPreventEscape() {
+        return restrictions.escape();
     }
 
     public List<String> getUnblockedCommands() {
-        return config.getStringList("unblocked-commands");
+        return List.copyOf(config.getStringList("unblocked-commands"));
     }
 
     // Enhanced features
@@ -218,14 +269,30 @@ public class ConfigManager {
         return config.getBoolean("enable-logging", DEFAULT_ENABLE_LOGGING);
     }
 
-    public int getMaxLogEntries() {
-        return config.getInt("max-log-entries", 1000);
+    public long getLogSegmentMaxBytes() {
+        return config.getLong("log-segments.max-size-kb", 4096) * 1024L;
+    }
+
+    public long getLogSegmentMaxAgeMillis() {
+        return config.getLong("log-segments.max-age-hours", 24) * 60L * 60L * 1000L;
     }
 
     public boolean isStatisticsEnabled() {
         return config.getBoolean("enable-statistics", DEFAULT_ENABLE_STATISTICS);
     }
 
+    public int getLeaderboardSize() {
+        return config.getInt("leaderboard-size", 10);
+    }
+
+    public int getFrequentOffenderThreshold() {
+        return Math.max(1, config.getInt("frequent-offender.threshold", 5));
+    }
+
+    public int getFrequentOffenderWindowDays() {
+        return Math.max(0, Math.min(StatisticsManager.HISTORY_DAYS, config.getInt("frequent-offender.window-days", 30)));
+    }
+
     public boolean isNotifyAdmins() {
         return config.getBoolean("notify-admins", true);
     }
@@ -284,6 +351,28 @@ public class ConfigManager {
         return config.getString("mysql.table-prefix", "jp_");
     }
 
+    public String getSQLiteFile() {
+        return config.getString("sqlite.file", "jailplus.db");
+    }
+
+    // Storage settings
+    public long getStorageFlushInterval() {
+        return config.getLong("storage.flush-interval", 40L);
+    }
+
+    public int getStoragePoolSize() {
+        return config.getInt("storage.pool-size", 4);
+    }
+
+    // Chunk tickets
+    public String getChunkTicketMode() {
+        return config.getString("chunk-tickets.mode", "OCCUPIED");
+    }
+
+    public int getChunkTicketRadius() {
+        return config.getInt("chunk-tickets.radius", 0);
+    }
+
     // PlaceholderAPI settings
     public boolean isPlaceholderAPIEnabled() {
         return config.getBoolean("enable-placeholderapi", DEFAULT_ENABLE_PLACEHOLDERAPI);
@@ -297,6 +386,10 @@ public class ConfigManager {
         return config.getLong("placeholder-cache-time", 5000);
     }
 
+    public int getPlaceholderCacheMaxSize() {
+        return config.getInt("placeholder-cache-max-size", 10000);
+    }
+
     public boolean isScoreboardEnabled() {
         return config.getBoolean("scoreboard.enabled", DEFAULT_ENABLE_SCOREBOARD);
     }
@@ -305,6 +398,10 @@ public class ConfigManager {
         return config.getLong("scoreboard.update-interval", 60L);
     }
 
+    public int getScoreboardMaxUpdatesPerTick() {
+        return config.getInt("scoreboard.max-updates-per-tick", 20);
+    }
+
     public boolean isScoreboardShowJailedBy() {
         return config.getBoolean("scoreboard.show-jailed-by", false);
     }
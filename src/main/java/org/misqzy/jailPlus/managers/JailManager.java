@@ -2,19 +2,22 @@ package org.misqzy.jailPlus.managers;
 
 import net.kyori.adventure.text.Component;
 import org.bukkit.*;
-import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.misqzy.jailPlus.JailPlus;
 import org.misqzy.jailPlus.data.JailData;
+import org.misqzy.jailPlus.data.JailRegion;
 import org.misqzy.jailPlus.data.PlayerJailData;
+import org.misqzy.jailPlus.storage.JailStorage;
+import org.misqzy.jailPlus.storage.SqlJailStorage;
+import org.misqzy.jailPlus.storage.YamlJailStorage;
+import org.misqzy.jailPlus.utils.ExpiryQueue;
 import org.misqzy.jailPlus.utils.TimeUtils;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.logging.Level;
 
@@ -29,10 +32,19 @@ public class JailManager {
 
     private final Set<UUID> jailedPlayerUUIDs;
 
-    private File jailsFile;
-    private File playersFile;
-    private FileConfiguration jailsConfig;
-    private FileConfiguration playersConfig;
+    // Jail name (lower case) -> prisoners held there
+    private final Map<String, Set<UUID>> jailPrisoners;
+
+    // Prisoner names, case-insensitive and sorted for prefix completion
+    private final NavigableMap<String, UUID> prisonerNames;
+
+    // Release deadlines in epoch millis, permanent prisoners are not indexed
+    private final ExpiryQueue<UUID> releaseQueue;
+
+    private JailStorage storage;
+
+    // Bulk operations spread their teleports so a large batch does not land in one tick
+    private static final int BULK_TELEPORTS_PER_TICK = 5;
 
     private BukkitRunnable jailTimer;
     private volatile boolean timerRunning = false;
@@ -44,65 +56,64 @@ public class JailManager {
         this.jails = new ConcurrentHashMap<>();
         this.jailedPlayers = new ConcurrentHashMap<>();
         this.jailedPlayerUUIDs = ConcurrentHashMap.newKeySet();
+        this.jailPrisoners = new ConcurrentHashMap<>();
+        this.prisonerNames = new ConcurrentSkipListMap<>(String.CASE_INSENSITIVE_ORDER);
+        this.releaseQueue = new ExpiryQueue<>();
 
-        setupDataFiles();
+        setupStorage();
         loadData();
         startJailTimer();
     }
 
-    private void setupDataFiles() {
-        File dataFolder = plugin.getDataFolder();
-        if (!dataFolder.exists()) {
-            dataFolder.mkdirs();
-        }
+    private void setupStorage() {
+        String type = configManager.getDatabaseType().toUpperCase(Locale.ROOT);
 
-        jailsFile = new File(dataFolder, "jails.yml");
-        playersFile = new File(dataFolder, "players.yml");
+        storage = switch (type) {
+            case "SQLITE" -> new SqlJailStorage(plugin, false);
+            case "MYSQL" -> new SqlJailStorage(plugin, true);
+            default -> new YamlJailStorage(plugin);
+        };
 
-        if (!jailsFile.exists()) {
+        try {
+            storage.init();
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.SEVERE, "Error initializing " + storage.getName() + " storage, falling back to YAML", e);
+            storage = new YamlJailStorage(plugin);
             try {
-                jailsFile.createNewFile();
-            } catch (IOException e) {
-                plugin.getLogger().severe("Error creating jails.yml: " + e);
+                storage.init();
+            } catch (Exception fallbackError) {
+                plugin.getLogger().log(Level.SEVERE, "Error initializing YAML storage", fallbackError);
             }
+            return;
         }
 
-        if (!playersFile.exists()) {
-            try {
-                playersFile.createNewFile();
-            } catch (IOException e) {
-                plugin.getLogger().severe("Error creating players.yml: " + e);
-            }
+        if (!(storage instanceof YamlJailStorage)) {
+            importYamlData();
         }
 
-        jailsConfig = YamlConfiguration.loadConfiguration(jailsFile);
-        playersConfig = YamlConfiguration.loadConfiguration(playersFile);
+        plugin.getLogger().fine("Using " + storage.getName() + " storage");
+    }
+
+    // One-time import when switching from YAML to a database backend
+    private void importYamlData() {
+        int imported = storage.importFrom(new YamlJailStorage(plugin));
+        if (imported > 0) {
+            plugin.getLogger().info("Imported " + imported + " jails and prisoners from YAML into "
+                    + storage.getName() + " storage");
+        }
     }
 
     private void loadData() {
         loadJails();
         loadJailedPlayers();
+        refreshChunkTickets();
     }
 
     private void loadJails() {
         jails.clear();
 
-        if (jailsConfig.getConfigurationSection("jails") == null) {
-            return;
-        }
-
-        for (String jailName : jailsConfig.getConfigurationSection("jails").getKeys(false)) {
-            String path = "jails." + jailName;
-
-            String worldName = jailsConfig.getString(path + ".world");
-            double x = jailsConfig.getDouble(path + ".x");
-            double y = jailsConfig.getDouble(path + ".y");
-            double z = jailsConfig.getDouble(path + ".z");
-            float yaw = (float) jailsConfig.getDouble(path + ".yaw");
-            float pitch = (float) jailsConfig.getDouble(path + ".pitch");
-
-            JailData jail = new JailData(jailName, worldName, x, y, z, yaw, pitch);
-            jails.put(jailName.toLowerCase(), jail);
+        for (JailData jail : storage.loadJails()) {
+            jails.put(jail.getName().toLowerCase(), jail);
         }
 
         plugin.getLogger().fine("Loaded " + jails.size() + " jails");
@@ -111,49 +122,21 @@ public class JailManager {
     private void loadJailedPlayers() {
         jailedPlayers.clear();
         jailedPlayerUUIDs.clear();
-
-        if (playersConfig.getConfigurationSection("players") == null) {
-            return;
-        }
-
-        for (String uuidString : playersConfig.getConfigurationSection("players").getKeys(false)) {
-            try {
-                String path = "players." + uuidString;
-
-                UUID uuid = UUID.fromString(uuidString);
-                String playerName = playersConfig.getString(path + ".name");
-                String jailName = playersConfig.getString(path + ".jail");
-                long jailTime = playersConfig.getLong(path + ".jail-time");
-                long startTime = playersConfig.getLong(path + ".start-time");
-                String reason = playersConfig.getString(path + ".reason", "No reason");
-                String jailedBy = playersConfig.getString(path + ".jailed-by", "Console");
-
-                PlayerJailData jailData = new PlayerJailData(uuid, playerName, jailName, jailTime, reason, jailedBy);
-                jailData.setStartTime(startTime);
-
-
-                if (playersConfig.contains(path + ".previous-location")) {
-                    String prevPath = path + ".previous-location";
-                    String worldName = playersConfig.getString(prevPath + ".world");
-
-                    if (worldName != null && Bukkit.getWorld(worldName) != null) {
-                        double x = playersConfig.getDouble(prevPath + ".x");
-                        double y = playersConfig.getDouble(prevPath + ".y");
-                        double z = playersConfig.getDouble(prevPath + ".z");
-                        float yaw = (float) playersConfig.getDouble(prevPath + ".yaw");
-                        float pitch = (float) playersConfig.getDouble(prevPath + ".pitch");
-
-                        Location prevLocation = new Location(Bukkit.getWorld(worldName), x, y, z, yaw, pitch);
-                        jailData.setPreviousLocation(prevLocation);
-                    }
-                }
-
-                jailedPlayers.put(uuid, jailData);
-                jailedPlayerUUIDs.add(uuid);
-
-            } catch (IllegalArgumentException e) {
-                plugin.getLogger().warning("Invalid UUID in players data: " + uuidString);
+        jailPrisoners.clear();
+        prisonerNames.clear();
+        releaseQueue.clear();
+
+        for (PlayerJailData jailData : storage.loadPlayers()) {
+            // Older versions stored the UUID as name for players jailed by UUID
+            if (jailData.getPlayerName().equals(jailData.getPlayerUuid().toString())) {
+                jailData.setPlayerName("");
             }
+
+            jailedPlayers.put(jailData.getPlayerUuid(), jailData);
+            jailedPlayerUUIDs.add(jailData.getPlayerUuid());
+            indexPrisoner(jailData.getJailName(), jailData.getPlayerUuid());
+            indexName(jailData);
+            scheduleRelease(jailData);
         }
 
         plugin.getLogger().info("Loaded " + jailedPlayers.size() + " prisoners");
@@ -171,7 +154,8 @@ public class JailManager {
 
         JailData jail = new JailData(jailName, location);
         jails.put(jailName, jail);
-        saveJails();
+        storage.saveJail(jail);
+        updateChunkTickets(jailName);
 
 
         if (plugin.getLogManager() != null) {
@@ -189,13 +173,11 @@ public class JailManager {
         }
 
 
-        jailedPlayers.values().stream()
-                .filter(data -> data.getJailName().equals(jailName))
-                .map(PlayerJailData::getPlayerUuid)
-                .forEach(this::unjailPlayer);
+        unjailAll(jailName, "Console");
 
         jails.remove(jailName);
-        saveJails();
+        storage.deleteJail(jailName);
+        updateChunkTickets(jailName);
 
 
         if (plugin.getLogManager() != null) {
@@ -205,6 +187,25 @@ public class JailManager {
         return true;
     }
 
+    /**
+     * Sets or clears (with {@code null}) the region prisoners of this jail are confined to.
+     */
+    public boolean setJailRegion(String name, JailRegion region) {
+        JailData jail = jails.get(name.toLowerCase());
+        if (jail == null) {
+            return false;
+        }
+
+        jail.setRegion(region);
+        storage.saveJail(jail);
+
+        if (plugin.getRestrictionManager() != null) {
+            plugin.getRestrictionManager().refreshAll();
+        }
+
+        return true;
+    }
+
     public boolean jailPlayer(Player player, String jailName, long time, String reason, String jailedBy) {
         if (isPlayerJailed(player)) {
             return false;
@@ -215,7 +216,6 @@ public class JailManager {
             return false;
         }
 
-        Location currentLocation = player.getLocation();
         Location jailLocation = jail.getLocation();
 
         if (!validateLocation(jailLocation)) {
@@ -231,18 +231,196 @@ public class JailManager {
                 reason,
                 jailedBy
         );
-        jailData.setPreviousLocation(currentLocation);
+        jailData.setPreviousLocation(player.getLocation());
+
+        addPrisoner(jailData);
+
+        if (plugin.getRestrictionManager() != null) {
+            plugin.getRestrictionManager().update(player);
+        }
+
+        teleport(player, jailLocation).thenRun(() -> {
+            if (player.isOnline()) {
+                playJailEffects(player, jailData);
+            }
+        });
+
+
+        if (configManager.isBroadcastJail()) {
+            Component comp = localizationManager.getMessage("jail.broadcast",
+                    player.getName(), reason, TimeUtils.formatTime(time));
+            Bukkit.broadcast(comp);
+        }
+
+        recordJail(jailData);
+
+        return true;
+    }
+
+    /**
+     * Sentences a player who is not online. The sentence is stored as pending and
+     * only starts running once {@link #applyPendingJail} is called on their next join.
+     */
+    public boolean jailOfflinePlayer(UUID playerUuid, String playerName, String jailName, long time, String reason, String jailedBy) {
+        if (jailedPlayers.containsKey(playerUuid)) {
+            return false;
+        }
+
+        JailData jail = jails.get(jailName.toLowerCase());
+        if (jail == null) {
+            return false;
+        }
+
+        PlayerJailData jailData = new PlayerJailData(
+                playerUuid,
+                playerName,
+                jailName.toLowerCase(),
+                time,
+                reason,
+                jailedBy
+        );
+        jailData.setPending(true);
 
+        addPrisoner(jailData);
 
-        player.teleport(jailLocation);
 
+        if (configManager.isBroadcastJail()) {
+            Component comp = localizationManager.getMessage("jail.broadcast",
+                    jailData.getDisplayName(), reason, TimeUtils.formatTime(time));
+            Bukkit.broadcast(comp);
+        }
+
+        recordJail(jailData);
+
+        return true;
+    }
+
+    /**
+     * Jails several players at once. Online targets are teleported over the following ticks,
+     * offline ones get a pending sentence, and a single summary is broadcast.
+     *
+     * @return names of the players that were jailed, the others were already jailed
+     */
+    public List<String> jailPlayers(Collection<? extends OfflinePlayer> targets, String jailName, long time,
+                                    String reason, String jailedBy) {
+        List<String> jailed = new ArrayList<>();
+
+        JailData jail = jails.get(jailName.toLowerCase());
+        if (jail == null || !validateLocation(jail.getLocation())) {
+            return jailed;
+        }
+
+        int queued = 0;
+        for (OfflinePlayer target : targets) {
+            if (jailedPlayers.containsKey(target.getUniqueId())) {
+                continue;
+            }
+
+            Player player = target.getPlayer();
+            PlayerJailData jailData = new PlayerJailData(
+                    target.getUniqueId(),
+                    target.getName(),
+                    jailName.toLowerCase(),
+                    time,
+                    reason,
+                    jailedBy
+            );
+
+            if (player != null) {
+                jailData.setPreviousLocation(player.getLocation());
+            } else {
+                jailData.setPending(true);
+            }
+
+            addPrisoner(jailData);
+
+            if (player != null) {
+                if (plugin.getRestrictionManager() != null) {
+                    plugin.getRestrictionManager().update(player);
+                }
+
+                // Until its tick comes the prisoner counts as teleporting, so leaving the region does not
+                // make the move listener teleport them ahead of the pacing
+                UUID playerUuid = player.getUniqueId();
+                TeleportManager teleportManager = plugin.getTeleportManager();
+                teleportManager.queue(playerUuid);
+                Bukkit.getScheduler().runTaskLater(plugin, () -> {
+                    Player online = Bukkit.getPlayer(playerUuid);
+                    if (online == null || jailedPlayers.get(playerUuid) != jailData) {
+                        teleportManager.dequeue(playerUuid);
+                        return;
+                    }
+
+                    teleport(online, jail.getLocation()).thenRun(() -> {
+                        if (online.isOnline()) {
+                            playJailEffects(online, jailData);
+                        }
+                    });
+                }, queued++ / BULK_TELEPORTS_PER_TICK);
+            }
+
+            recordJail(jailData);
+            jailed.add(jailData.getDisplayName());
+        }
+
+        if (!jailed.isEmpty() && configManager.isBroadcastJail()) {
+            Bukkit.broadcast(localizationManager.getMessage("jail.broadcast-bulk",
+                    jailed.size(), TimeUtils.formatTime(time), reason));
+        }
+
+        return jailed;
+    }
+
+    public void applyPendingJail(Player player, PlayerJailData jailData) {
+        jailData.setPreviousLocation(player.getLocation());
+        jailData.start();
+
+        JailData jail = jails.get(jailData.getJailName());
+        if (jail != null) {
+            Location jailLocation = jail.getLocation();
+            if (validateLocation(jailLocation)) {
+                teleport(player, jailLocation);
+            } else {
+                plugin.getLogger().warning("Invalid jail location for: " + jailData.getJailName());
+            }
+        }
+
+        scheduleRelease(jailData);
+        storage.savePlayer(jailData);
+
+        if (plugin.getRestrictionManager() != null) {
+            plugin.getRestrictionManager().update(player);
+        }
 
-        jailedPlayers.put(player.getUniqueId(), jailData);
-        jailedPlayerUUIDs.add(player.getUniqueId());
+        if (plugin.getPlaceholderManager() != null) {
+            plugin.getPlaceholderManager().invalidateCache(player.getUniqueId());
+        }
+
+        localizationManager.sendMessage(player, "jail.jailed",
+                jailData.getJailName(), TimeUtils.formatTime(jailData.getJailTime()), jailData.getReason());
+
+        if (plugin.getScoreboardManager() != null) {
+            plugin.getScoreboardManager().showJailScoreboard(player, jailData);
+        }
+    }
 
-        savePlayers();
+    private void addPrisoner(PlayerJailData jailData) {
+        UUID playerUuid = jailData.getPlayerUuid();
 
+        jailedPlayers.put(playerUuid, jailData);
+        jailedPlayerUUIDs.add(playerUuid);
+        indexPrisoner(jailData.getJailName(), playerUuid);
+        indexName(jailData);
+        scheduleRelease(jailData);
 
+        storage.savePlayer(jailData);
+
+        if (plugin.getPlaceholderManager() != null) {
+            plugin.getPlaceholderManager().invalidateCache(playerUuid);
+        }
+    }
+
+    private void playJailEffects(Player player, PlayerJailData jailData) {
         if (configManager.isSoundsEnabled()) {
             try {
                 Sound sound = Registry.SOUNDS.get(NamespacedKey.minecraft(configManager.getJailSound().toLowerCase()));
@@ -256,117 +434,291 @@ public class JailManager {
         }
 
 
-        if (configManager.isBroadcastJail()) {
-            Component comp = localizationManager.getMessage("jail.broadcast",
-                    player.getName(), reason, TimeUtils.formatTime(time));
-            Bukkit.broadcast(comp);
-        }
-
-
         localizationManager.sendMessage(player, "jail.jailed",
-                jailName, TimeUtils.formatTime(time), reason);
+                jailData.getJailName(), TimeUtils.formatTime(jailData.getJailTime()), jailData.getReason());
 
 
         if (plugin.getScoreboardManager() != null) {
             plugin.getScoreboardManager().showJailScoreboard(player, jailData);
         }
+    }
 
+    private void recordJail(PlayerJailData jailData) {
         if (plugin.getStatisticsManager() != null) {
-            plugin.getStatisticsManager().addJailRecord(player.getUniqueId(), time, reason);
+            plugin.getStatisticsManager().addJailRecord(jailData.getPlayerUuid(), jailData.getPlayerName(),
+                    jailData.getJailTime(), jailData.getReason());
         }
 
 
         if (plugin.getLogManager() != null) {
-            plugin.getLogManager().logJail(player.getName(), jailedBy, jailName, time, reason);
+            plugin.getLogManager().logJail(jailData.getPlayerUuid(), jailData.getPlayerName(), jailData.getJailedBy(),
+                    jailData.getJailName(), jailData.getJailTime(), jailData.getReason());
         }
-
-        return true;
     }
 
     public boolean unjailPlayer(UUID playerUuid) {
-        PlayerJailData jailData = jailedPlayers.remove(playerUuid);
+        PlayerJailData jailData = removePrisoner(playerUuid);
         if (jailData == null) {
             return false;
         }
 
-        jailedPlayerUUIDs.remove(playerUuid);
-
         Player player = Bukkit.getPlayer(playerUuid);
         if (player != null && player.isOnline()) {
-            if (plugin.getScoreboardManager() != null && configManager.isScoreboardAutoHideOnRelease()) {
-                plugin.getScoreboardManager().hideJailScoreboard(player);
-            }
+            playReleaseEffects(player, jailData);
 
-            Location returnLocation = jailData.getPreviousLocation();
-            if (returnLocation != null && validateLocation(returnLocation)) {
-                player.teleport(returnLocation);
-            } else {
-                // Fallback to spawn
-                player.teleport(player.getWorld().getSpawnLocation());
+            if (configManager.isBroadcastUnjail()) {
+                Component comp = localizationManager.getMessage("jail.unjail-broadcast", player.getName());
+                Bukkit.broadcast(comp);
             }
+        }
 
 
-            if (configManager.isSoundsEnabled()) {
-                try {
-                    Sound sound = Registry.SOUNDS.get(NamespacedKey.minecraft(configManager.getUnjailSound().toLowerCase()));
-                    if (sound != null) {
-                        player.playSound(player.getLocation(), sound, 1.0f, 1.0f);
+        if (plugin.getLogManager() != null) {
+            plugin.getLogManager().logUnjail(playerUuid, jailData.getPlayerName(), "System", "Time expired");
+        }
+
+        return true;
+    }
+
+    /**
+     * Releases every prisoner of a jail. Online prisoners are teleported back over the following ticks
+     * and a single summary is broadcast.
+     *
+     * @return number of released prisoners
+     */
+    public int unjailAll(String jailName, String executor) {
+        List<UUID> prisoners = new ArrayList<>(getPrisoners(jailName));
+
+        int released = 0;
+        int queued = 0;
+        for (UUID playerUuid : prisoners) {
+            PlayerJailData jailData = removePrisoner(playerUuid);
+            if (jailData == null) {
+                continue;
+            }
+            released++;
+
+            if (Bukkit.getPlayer(playerUuid) != null) {
+                Bukkit.getScheduler().runTaskLater(plugin, () -> {
+                    Player online = Bukkit.getPlayer(playerUuid);
+                    if (online != null && !jailedPlayers.containsKey(playerUuid)) {
+                        playReleaseEffects(online, jailData);
                     }
-                } catch (IllegalArgumentException e) {
-                    plugin.getLogger().warning("Invalid unjail sound: " + configManager.getUnjailSound());
-                }
+                }, queued++ / BULK_TELEPORTS_PER_TICK);
+            }
+
+            if (plugin.getLogManager() != null) {
+                plugin.getLogManager().logUnjail(playerUuid, jailData.getPlayerName(), executor, "Jail cleared");
             }
+        }
 
-            if (configManager.isParticlesEnabled()) {
-                Particle particle = null;
+        if (released > 0 && configManager.isBroadcastUnjail()) {
+            Bukkit.broadcast(localizationManager.getMessage("jail.unjail-broadcast-bulk", released, jailName));
+        }
 
-                try {
-                    particle = Particle.valueOf(configManager.getPrisonerParticle().toUpperCase(Locale.ROOT));
-                } catch (IllegalArgumentException e) {
-                    plugin.getLogger().warning("Invalid particle type: " + configManager.getPrisonerParticle());
-                }
+        return released;
+    }
+
+    private PlayerJailData removePrisoner(UUID playerUuid) {
+        PlayerJailData jailData = jailedPlayers.remove(playerUuid);
+        if (jailData == null) {
+            return null;
+        }
+
+        jailedPlayerUUIDs.remove(playerUuid);
+        unindexPrisoner(jailData.getJailName(), playerUuid);
+        prisonerNames.remove(jailData.getPlayerName(), playerUuid);
+        releaseQueue.remove(playerUuid);
+
+        if (plugin.getRestrictionManager() != null) {
+            plugin.getRestrictionManager().remove(playerUuid);
+        }
+
+        storage.deletePlayer(playerUuid);
+
+        if (plugin.getPlaceholderManager() != null) {
+            plugin.getPlaceholderManager().invalidateCache(playerUuid);
+        }
+
+        return jailData;
+    }
+
+    private void playReleaseEffects(Player player, PlayerJailData jailData) {
+        if (plugin.getScoreboardManager() != null && configManager.isScoreboardAutoHideOnRelease()) {
+            plugin.getScoreboardManager().hideJailScoreboard(player);
+        }
 
-                if (particle != null) {
-                    Location location = player.getLocation();
-                    int minParticleCount = 5;
-                    int maxParticleCount = 12;
-
-                    int randomParticleCount = ThreadLocalRandom.current().nextInt(minParticleCount, maxParticleCount + 1);
-                    player.spawnParticle(particle,
-                            player.getLocation(),
-                            randomParticleCount,
-                            1.0,1.0,1.0,
-                            0.0);
+        Location returnLocation = jailData.getPreviousLocation();
+        if (returnLocation == null || !validateLocation(returnLocation)) {
+            // Fallback to spawn
+            returnLocation = player.getWorld().getSpawnLocation();
+        }
+
+        localizationManager.sendMessage(player, "jail.unjailed");
+
+        teleport(player, returnLocation).thenRun(() -> {
+            if (player.isOnline()) {
+                playReleaseSound(player);
+            }
+        });
+    }
+
+    private void playReleaseSound(Player player) {
+        if (configManager.isSoundsEnabled()) {
+            try {
+                Sound sound = Registry.SOUNDS.get(NamespacedKey.minecraft(configManager.getUnjailSound().toLowerCase()));
+                if (sound != null) {
+                    player.playSound(player.getLocation(), sound, 1.0f, 1.0f);
                 }
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Invalid unjail sound: " + configManager.getUnjailSound());
             }
+        }
 
+        if (configManager.isParticlesEnabled()) {
+            Particle particle = null;
 
-            localizationManager.sendMessage(player, "jail.unjailed");
+            try {
+                particle = Particle.valueOf(configManager.getPrisonerParticle().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Invalid particle type: " + configManager.getPrisonerParticle());
+            }
 
-            if (configManager.isBroadcastUnjail()) {
-                Component comp = localizationManager.getMessage("jail.unjail-broadcast", player.getName());
-                Bukkit.broadcast(comp);
+            if (particle != null) {
+                int minParticleCount = 5;
+                int maxParticleCount = 12;
+
+                int randomParticleCount = ThreadLocalRandom.current().nextInt(minParticleCount, maxParticleCount + 1);
+                player.spawnParticle(particle,
+                        player.getLocation(),
+                        randomParticleCount,
+                        1.0,1.0,1.0,
+                        0.0);
             }
         }
+    }
+
+    public boolean unjailPlayer(String playerName) {
+        PlayerJailData jailData = getJailData(playerName);
+        return jailData != null && unjailPlayer(jailData.getPlayerUuid());
+    }
+
+    public boolean transferPlayer(UUID playerUuid, String newJailName, String executor) {
+        PlayerJailData jailData = jailedPlayers.get(playerUuid);
+        if (jailData == null) {
+            return false;
+        }
+
+        String jailName = newJailName.toLowerCase();
+        JailData jail = jails.get(jailName);
+        if (jail == null || jailName.equals(jailData.getJailName().toLowerCase())) {
+            return false;
+        }
+
+        Location jailLocation = jail.getLocation();
+        if (!validateLocation(jailLocation)) {
+            plugin.getLogger().warning("Invalid jail location for: " + jailName);
+            return false;
+        }
+
+        String oldJailName = jailData.getJailName();
+        unindexPrisoner(oldJailName, playerUuid);
+        jailData.setJailName(jailName);
+        indexPrisoner(jailName, playerUuid);
+
+        storage.savePlayer(jailData);
+
+        if (plugin.getPlaceholderManager() != null) {
+            plugin.getPlaceholderManager().invalidateCache(playerUuid);
+        }
 
-        savePlayers();
+        Player player = Bukkit.getPlayer(playerUuid);
+        if (player != null && player.isOnline()) {
+            teleport(player, jailLocation);
+            localizationManager.sendMessage(player, "jail.transferred", jailName);
 
+            if (plugin.getRestrictionManager() != null) {
+                plugin.getRestrictionManager().update(player);
+            }
+
+            if (plugin.getScoreboardManager() != null) {
+                plugin.getScoreboardManager().showJailScoreboard(player, jailData);
+            }
+        }
 
         if (plugin.getLogManager() != null) {
-            plugin.getLogManager().logUnjail(jailData.getPlayerName(), "System", "Time expired");
+            plugin.getLogManager().logTransfer(playerUuid, jailData.getPlayerName(), executor, oldJailName, jailName);
         }
 
         return true;
     }
 
-    public boolean unjailPlayer(String playerName) {
-        UUID uuid = jailedPlayers.values().stream()
-                .filter(data -> data.getPlayerName().equalsIgnoreCase(playerName))
-                .map(PlayerJailData::getPlayerUuid)
-                .findFirst()
-                .orElse(null);
+    private void indexPrisoner(String jailName, UUID playerUuid) {
+        Set<UUID> jailed = jailPrisoners.compute(jailName.toLowerCase(), (name, prisoners) -> {
+            if (prisoners == null) {
+                prisoners = ConcurrentHashMap.newKeySet();
+            }
+            prisoners.add(playerUuid);
+            return prisoners;
+        });
 
-        return uuid != null && unjailPlayer(uuid);
+        if (jailed.size() == 1) {
+            updateChunkTickets(jailName);
+        }
+    }
+
+    private void unindexPrisoner(String jailName, UUID playerUuid) {
+        Set<UUID> remaining = jailPrisoners.computeIfPresent(jailName.toLowerCase(), (name, prisoners) -> {
+            prisoners.remove(playerUuid);
+            return prisoners.isEmpty() ? null : prisoners;
+        });
+
+        if (remaining == null) {
+            updateChunkTickets(jailName);
+        }
+    }
+
+    // Called when a jail is created or deleted and when it gains its first or loses its last prisoner
+    private void updateChunkTickets(String jailName) {
+        ChunkTicketManager chunkTicketManager = plugin.getChunkTicketManager();
+        if (chunkTicketManager == null) {
+            return;
+        }
+
+        JailData jail = jails.get(jailName.toLowerCase());
+        if (jail == null) {
+            chunkTicketManager.release(jailName);
+        } else {
+            chunkTicketManager.update(jail, getPrisonerCount(jailName) > 0);
+        }
+    }
+
+    /**
+     * Applies the tickets of the jails in a world that was loaded after the jails.
+     */
+    public void refreshChunkTickets(World world) {
+        ChunkTicketManager chunkTicketManager = plugin.getChunkTicketManager();
+        if (chunkTicketManager == null) {
+            return;
+        }
+
+        for (JailData jail : jails.values()) {
+            if (world.getName().equals(jail.getWorldName())) {
+                chunkTicketManager.update(jail, getPrisonerCount(jail.getName()) > 0);
+            }
+        }
+    }
+
+    private void refreshChunkTickets() {
+        ChunkTicketManager chunkTicketManager = plugin.getChunkTicketManager();
+        if (chunkTicketManager == null) {
+            return;
+        }
+
+        chunkTicketManager.releaseJails();
+        for (JailData jail : jails.values()) {
+            chunkTicketManager.update(jail, getPrisonerCount(jail.getName()) > 0);
+        }
     }
 
 
@@ -382,10 +734,71 @@ public class JailManager {
         return jailedPlayers.get(uuid);
     }
 
+    // By name, or by UUID for prisoners whose name is not known yet
+    public PlayerJailData getJailData(String playerName) {
+        UUID uuid = prisonerNames.get(playerName);
+        if (uuid == null && playerName.length() == 36) {
+            try {
+                uuid = UUID.fromString(playerName);
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        return uuid != null ? jailedPlayers.get(uuid) : null;
+    }
+
+    public List<String> getPrisonerNames(String prefix) {
+        Collection<String> names = prefix.isEmpty()
+                ? prisonerNames.keySet()
+                : prisonerNames.subMap(prefix, true, prefix + Character.MAX_VALUE, false).keySet();
+        return new ArrayList<>(names);
+    }
+
+    // Prisoners jailed by UUID stay out of the name index until their name is known
+    private void indexName(PlayerJailData jailData) {
+        if (!jailData.getPlayerName().isEmpty()) {
+            prisonerNames.put(jailData.getPlayerName(), jailData.getPlayerUuid());
+        }
+    }
+
+    public void updatePlayerName(PlayerJailData jailData, String playerName) {
+        if (jailData.getPlayerName().equals(playerName)) {
+            return;
+        }
+
+        prisonerNames.remove(jailData.getPlayerName(), jailData.getPlayerUuid());
+        jailData.setPlayerName(playerName);
+        indexName(jailData);
+
+        storage.savePlayer(jailData);
+    }
+
     public JailData getJail(String name) {
         return jails.get(name.toLowerCase());
     }
 
+    public Set<UUID> getPrisoners(String jailName) {
+        Set<UUID> prisoners = jailPrisoners.get(jailName.toLowerCase());
+        return prisoners != null ? Collections.unmodifiableSet(prisoners) : Collections.emptySet();
+    }
+
+    public int getPrisonerCount(String jailName) {
+        Set<UUID> prisoners = jailPrisoners.get(jailName.toLowerCase());
+        return prisoners != null ? prisoners.size() : 0;
+    }
+
+    public boolean isPrisonerIn(UUID playerUuid, String jailName) {
+        Set<UUID> prisoners = jailPrisoners.get(jailName.toLowerCase());
+        return prisoners != null && prisoners.contains(playerUuid);
+    }
+
+    public int getPrisonerCount() {
+        return jailedPlayers.size();
+    }
+
+    public int getJailCount() {
+        return jails.size();
+    }
+
     public Collection<JailData> getAllJails() {
         return new ArrayList<>(jails.values());
     }
@@ -405,98 +818,66 @@ public class JailManager {
             }
         };
 
-        long interval = configManager.getCheckInterval();
-        jailTimer.runTaskTimer(plugin, interval, interval);
+        // Every tick, but only prisoners that are due are touched
+        jailTimer.runTaskTimer(plugin, 1L, 1L);
     }
 
     private void checkJailTimes() {
-        if (jailedPlayers.isEmpty()) {
-            return;
-        }
-
-        List<UUID> toRelease = new ArrayList<>();
-        long currentTime = System.currentTimeMillis() / 1000;
+        releaseQueue.pollExpired(System.currentTimeMillis(), this::unjailPlayer);
+    }
 
-        for (PlayerJailData jailData : jailedPlayers.values()) {
-            if (jailData.getStartTime() + jailData.getJailTime() <= currentTime) {
-                toRelease.add(jailData.getPlayerUuid());
-            }
+    private void scheduleRelease(PlayerJailData jailData) {
+        long releaseTime = jailData.getReleaseTime();
+        if (releaseTime == Long.MAX_VALUE) {
+            releaseQueue.remove(jailData.getPlayerUuid());
+        } else {
+            releaseQueue.schedule(jailData.getPlayerUuid(), releaseTime);
         }
+    }
 
-        if (!toRelease.isEmpty()) {
-            Bukkit.getScheduler().runTask(plugin, () -> {
-                for (UUID uuid : toRelease) {
-                    unjailPlayer(uuid);
-                }
-            });
-        }
+    public void addJailTime(PlayerJailData jailData, long seconds) {
+        jailData.addTime(seconds);
+        onJailTimeChanged(jailData);
     }
 
-    private boolean validateLocation(Location location) {
-        if (location == null) return false;
-        if (location.getWorld() == null) return false;
+    public void subtractJailTime(PlayerJailData jailData, long seconds) {
+        jailData.subtractTime(seconds);
+        onJailTimeChanged(jailData);
+    }
+
+    public void setJailTime(PlayerJailData jailData, long seconds) {
+        jailData.setTime(seconds);
+        onJailTimeChanged(jailData);
+    }
 
-        if (!location.getWorld().isChunkLoaded(location.getBlockX() >> 4, location.getBlockZ() >> 4)) {
-            location.getWorld().loadChunk(location.getBlockX() >> 4, location.getBlockZ() >> 4);
+    private void onJailTimeChanged(PlayerJailData jailData) {
+        if (jailedPlayers.get(jailData.getPlayerUuid()) != jailData) {
+            return;
         }
 
-        return true;
+        scheduleRelease(jailData);
+        storage.savePlayer(jailData);
     }
 
-    public void saveJails() {
-        jailsConfig.set("jails", null);
-
-        for (JailData jail : jails.values()) {
-            String path = "jails." + jail.getName();
-            jailsConfig.set(path + ".world", jail.getWorldName());
-            jailsConfig.set(path + ".x", jail.getX());
-            jailsConfig.set(path + ".y", jail.getY());
-            jailsConfig.set(path + ".z", jail.getZ());
-            jailsConfig.set(path + ".yaw", jail.getYaw());
-            jailsConfig.set(path + ".pitch", jail.getPitch());
-        }
+    // Chunks are not loaded here, teleports load them asynchronously
+    private boolean validateLocation(Location location) {
+        return location != null && location.getWorld() != null;
+    }
 
-        try {
-            jailsConfig.save(jailsFile);
-        } catch (IOException e) {
-            plugin.getLogger().log(Level.SEVERE, "Error saving jails.yml", e);
-        }
-    }
-
-    public void savePlayers() {
-        playersConfig.set("players", null);
-
-        for (PlayerJailData jailData : jailedPlayers.values()) {
-            String path = "players." + jailData.getPlayerUuid().toString();
-            playersConfig.set(path + ".name", jailData.getPlayerName());
-            playersConfig.set(path + ".jail", jailData.getJailName());
-            playersConfig.set(path + ".jail-time", jailData.getJailTime());
-            playersConfig.set(path + ".start-time", jailData.getStartTime());
-            playersConfig.set(path + ".reason", jailData.getReason());
-            playersConfig.set(path + ".jailed-by", jailData.getJailedBy());
-
-            Location prevLocation = jailData.getPreviousLocation();
-            if (prevLocation != null) {
-                String prevPath = path + ".previous-location";
-                playersConfig.set(prevPath + ".world", prevLocation.getWorld().getName());
-                playersConfig.set(prevPath + ".x", prevLocation.getX());
-                playersConfig.set(prevPath + ".y", prevLocation.getY());
-                playersConfig.set(prevPath + ".z", prevLocation.getZ());
-                playersConfig.set(prevPath + ".yaw", prevLocation.getYaw());
-                playersConfig.set(prevPath + ".pitch", prevLocation.getPitch());
-            }
-        }
+    public CompletableFuture<Boolean> teleport(Player player, Location location) {
+        return plugin.getTeleportManager().teleport(player, location);
+    }
 
-        try {
-            playersConfig.save(playersFile);
-        } catch (IOException e) {
-            plugin.getLogger().log(Level.SEVERE, "Error saving players.yml", e);
-        }
+    public void savePlayer(PlayerJailData jailData) {
+        storage.savePlayer(jailData);
     }
 
     public void saveAllData() {
-        saveJails();
-        savePlayers();
+        storage.flush();
+    }
+
+    public JailStorage getStorage() {
+        return storage;
     }
 
     public void reloadData() {
@@ -505,6 +886,8 @@ public class JailManager {
             timerRunning = false;
         }
 
+        storage.close();
+        setupStorage();
         loadData();
         startJailTimer();
         plugin.getLogger().info("JailPlus data reloaded!");
@@ -515,9 +898,12 @@ public class JailManager {
         if (jailTimer != null) {
             jailTimer.cancel();
         }
-        saveAllData();
+        storage.close();
         jails.clear();
         jailedPlayers.clear();
         jailedPlayerUUIDs.clear();
+        jailPrisoners.clear();
+        prisonerNames.clear();
+        releaseQueue.clear();
     }
 }
@@ -9,6 +9,7 @@ import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.misqzy.jailPlus.JailPlus;
+import org.misqzy.jailPlus.utils.MessageTemplate;
 
 import java.io.File;
 import java.io.InputStream;
@@ -26,6 +27,9 @@ public class LocalizationManager {
     private Map<String, FileConfiguration> messages;
     private String currentLanguage;
 
+    // Compiled once per load/reload for the current language
+    private volatile Map<String, MessageTemplate> templates = Map.of();
+
     private static final Pattern MINI_MESSAGE_PATTERN = Pattern.compile("<[^<>]*>");
     private static final Pattern LEGACY_PATTERN = Pattern.compile("&[0-9a-fk-or]", Pattern.CASE_INSENSITIVE);
 
@@ -33,6 +37,8 @@ public class LocalizationManager {
     private static final LegacyComponentSerializer LEGACY_SERIALIZER = LegacyComponentSerializer.legacyAmpersand();
     private static final PlainTextComponentSerializer PLAIN_SERIALIZER = PlainTextComponentSerializer.plainText();
 
+    private static final Map<String, String> LEGACY_TO_MINI = createLegacyToMiniMap();
+
     public LocalizationManager(JailPlus plugin, ConfigManager configManager) {
         this.plugin = plugin;
         this.configManager = configManager;
@@ -58,6 +64,46 @@ public class LocalizationManager {
         for (String lang : languages) {
             loadLanguageFile(lang);
         }
+
+        compileTemplates();
+    }
+
+    private void compileTemplates() {
+        FileConfiguration messageConfig = messages.get(currentLanguage);
+        FileConfiguration fallbackConfig = messages.get("en");
+        if (messageConfig == null) messageConfig = fallbackConfig;
+        if (messageConfig == null) {
+            templates = Map.of();
+            return;
+        }
+
+        String prefix = messageConfig.getString("prefix", "");
+        String prefixReplacement = configManager.isUsePrefix() ? prefix + " " : "";
+
+        Map<String, MessageTemplate> compiled = new HashMap<>();
+        if (fallbackConfig != null && fallbackConfig != messageConfig) {
+            compileInto(compiled, fallbackConfig, prefixReplacement);
+        }
+        compileInto(compiled, messageConfig, prefixReplacement);
+
+        templates = compiled;
+        plugin.getLogger().fine("Compiled " + compiled.size() + " message templates for " + currentLanguage);
+    }
+
+    private void compileInto(Map<String, MessageTemplate> compiled, FileConfiguration messageConfig, String prefixReplacement) {
+        for (String key : messageConfig.getKeys(true)) {
+            if (!messageConfig.isString(key)) {
+                continue;
+            }
+
+            String message = messageConfig.getString(key);
+            if (message == null) {
+                continue;
+            }
+
+            message = message.replace("{prefix}", prefixReplacement);
+            compiled.put(key, MessageTemplate.compile(message, this::parseMessage));
+        }
     }
 
     private void loadLanguageFile(String language) {
@@ -89,21 +135,22 @@ public class LocalizationManager {
     }
 
     public String getRawMessage(String key, Object... placeholders) {
-        FileConfiguration messageConfig = messages.get(currentLanguage);
-        if (messageConfig == null) messageConfig = messages.get("en");
-        if (messageConfig == null) return "Missing message: " + key;
-
-        String message = messageConfig.getString(key, "Missing message: " + key);
-        message = replacePlaceholders(message, placeholders);
+        MessageTemplate template = templates.get(key);
+        if (template == null) {
+            return "Missing message: " + key;
+        }
 
-        return message;
+        return template.render(placeholders);
     }
 
 
     public Component getMessage(String key, Object... placeholders) {
-        String message = getRawMessage(key, placeholders);
+        MessageTemplate template = templates.get(key);
+        if (template == null) {
+            return Component.text("Missing message: " + key);
+        }
 
-        return parseMessage(message);
+        return template.renderComponent(placeholders);
     }
 
     public Component parseMessage(String message) {
@@ -172,7 +219,7 @@ public class LocalizationManager {
         }
     }
 
-    private String convertLegacyToMiniMessage(String message) {
+    private static Map<String, String> createLegacyToMiniMap() {
         Map<String, String> legacyToMiniMap = new HashMap<>();
 
         legacyToMiniMap.put("&0", "<black>");
@@ -199,8 +246,12 @@ public class LocalizationManager {
         legacyToMiniMap.put("&o", "<italic>");
         legacyToMiniMap.put("&r", "<reset>");
 
+        return Map.copyOf(legacyToMiniMap);
+    }
+
+    private String convertLegacyToMiniMessage(String message) {
         String result = message;
-        for (Map.Entry<String, String> entry : legacyToMiniMap.entrySet()) {
+        for (Map.Entry<String, String> entry : LEGACY_TO_MINI.entrySet()) {
             String legacyCode = entry.getKey();
             String miniCode = entry.getValue();
 
@@ -231,26 +282,6 @@ public class LocalizationManager {
         }
     }
 
-    private String replacePlaceholders(String message, Object... placeholders) {
-        if (message.contains("{prefix}")) {
-            if (configManager.isUsePrefix()) {
-                message = message.replace("{prefix}", getPrefix() + " ");
-            } else {
-                message = message.replace("{prefix}", "");
-            }
-        }
-
-        if (placeholders.length == 0) {
-            return message;
-        }
-
-        for (int i = 0; i < placeholders.length; i++) {
-            message = message.replace("{" + i + "}", String.valueOf(placeholders[i]));
-        }
-
-        return message;
-    }
-
     public void reloadMessages() {
         messages.clear();
         currentLanguage = configManager.getLanguage();
@@ -1,184 +1,438 @@
 package org.misqzy.jailPlus.managers;
 
-import org.bukkit.configuration.file.FileConfiguration;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.bukkit.Bukkit;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
 import org.misqzy.jailPlus.JailPlus;
+import org.misqzy.jailPlus.storage.AuditLogIndex;
+import org.misqzy.jailPlus.storage.AuditLogWriter;
+import org.misqzy.jailPlus.utils.TimeUtils;
 
 import java.io.File;
 import java.io.IOException;
-import java.text.SimpleDateFormat;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.logging.Level;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
 
 
 public class LogManager {
 
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    public enum LogAction {
+        JAIL, UNJAIL, TIME_CHANGE, TRANSFER, JAIL_CREATE, JAIL_DELETE;
+
+        public static LogAction parse(String name) {
+            try {
+                return valueOf(name.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
     private final JailPlus plugin;
-    private final File logsFile;
-    private FileConfiguration logs;
-    private final SimpleDateFormat dateFormat;
-    private final List<LogEntry> logCache;
+    private final File logsDirectory;
+    private final AuditLogIndex index;
+    private AuditLogWriter<LogEntry> writer;
 
     public LogManager(JailPlus plugin) {
         this.plugin = plugin;
-        this.logCache = new ArrayList<>();
-        this.dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        this.logsDirectory = new File(plugin.getDataFolder(), "logs");
+        this.index = new AuditLogIndex();
+
+        start();
+    }
 
-        // Setup logs file
-        logsFile = new File(plugin.getDataFolder(), "logs.yml");
-        if (!logsFile.exists()) {
+    private void start() {
+        ConfigManager configManager = plugin.getConfigManager();
+
+        writer = new AuditLogWriter<>(plugin, logsDirectory, LogManager::encode,
+                configManager.getLogSegmentMaxBytes(), configManager.getLogSegmentMaxAgeMillis(),
+                (entry, segment, offset, length) -> indexEntry(entry, segment, offset, length));
+
+        // Segments are read on the appender thread, entries logged meanwhile are queued behind the load
+        writer.start(() -> {
+            index.clear();
+            loadSegments();
+            return migrateLegacyLogs();
+        });
+    }
+
+    // Indexes every segment once, the entries themselves are read back on query
+    private void loadSegments() {
+        for (File segment : writer.listSegments()) {
+            byte[] bytes;
             try {
-                logsFile.createNewFile();
+                bytes = Files.readAllBytes(segment.toPath());
             } catch (IOException e) {
-                plugin.getLogger().severe("Could not create logs.yml: " + e);
+                plugin.getLogger().warning("Could not read log segment " + segment.getName() + ": " + e);
+                continue;
+            }
+
+            int lineStart = 0;
+            for (int i = 0; i < bytes.length; i++) {
+                if (bytes[i] != '\n') {
+                    continue;
+                }
+
+                LogEntry entry = decode(new String(bytes, lineStart, i - lineStart, StandardCharsets.UTF_8));
+                if (entry != null) {
+                    indexEntry(entry, segment, lineStart, i + 1 - lineStart);
+                }
+                lineStart = i + 1;
             }
         }
 
-        logs = YamlConfiguration.loadConfiguration(logsFile);
-        loadLogs();
+        plugin.getLogger().fine("Indexed " + index.size() + " log entries");
+    }
+
+    private void indexEntry(LogEntry entry, File segment, long offset, int length) {
+        index.add(segment, offset, length, entry.getTime(),
+                entry.getPlayerName(), entry.getExecutorName(), entry.getAction().name());
     }
 
-    private void loadLogs() {
-        List<String> logEntries = logs.getStringList("logs");
-        logCache.clear();
+    // One-time move of the old logs.yml history into the segment log, returns the entries to write
+    private List<LogEntry> migrateLegacyLogs() {
+        File legacyFile = new File(plugin.getDataFolder(), "logs.yml");
+        if (!legacyFile.exists()) {
+            return List.of();
+        }
 
-        for (String entry : logEntries) {
-            String[] parts = entry.split("\\|", 5);
-            if (parts.length >= 5) {
-                LogEntry logEntry = new LogEntry(
-                        parts[0], // timestamp
-                        parts[1], // action
-                        parts[2], // player
-                        parts[3], // executor
-                        parts[4]  // details
-                );
-                logCache.add(logEntry);
+        List<String> legacyEntries = YamlConfiguration.loadConfiguration(legacyFile).getStringList("logs");
+        List<LogEntry> migrated = new ArrayList<>(legacyEntries.size());
+
+        for (String line : legacyEntries) {
+            String[] parts = line.split("\\|", 5);
+            if (parts.length < 5) {
+                continue;
             }
+
+            long time;
+            try {
+                time = LocalDateTime.parse(parts[0], DATE_FORMAT).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                continue;
+            }
+
+            LogAction action = LogAction.parse(parts[1]);
+            if (action == null) {
+                continue;
+            }
+
+            migrated.add(LogEntry.legacy(time, action, parts[2], parts[3], parts[4]));
+        }
+
+        File migratedFile = new File(plugin.getDataFolder(), "logs.yml.migrated");
+        if (!legacyFile.renameTo(migratedFile)) {
+            plugin.getLogger().warning("Could not rename logs.yml after migration");
         }
 
-        plugin.getLogger().fine("Loaded " + logCache.size() + " log entries");
+        plugin.getLogger().info("Migrated " + migrated.size() + " log entries from logs.yml");
+        return migrated;
     }
 
-    public void logJail(String playerName, String executor, String jailName, long time, String reason) {
-        String details = String.format("Jail: %s, Time: %ds, Reason: %s", jailName, time, reason);
-        addLog("JAIL", playerName, executor, details);
+    public void logJail(UUID playerUuid, String playerName, String executor, String jailName, long time, String reason) {
+        addLog(new LogEntry(System.currentTimeMillis(), LogAction.JAIL, playerUuid, playerName,
+                executorUuid(executor), executor, jailName, time, reason, null));
     }
 
-    public void logUnjail(String playerName, String executor, String reason) {
-        String details = String.format("Reason: %s", reason);
-        addLog("UNJAIL", playerName, executor, details);
+    public void logUnjail(UUID playerUuid, String playerName, String executor, String reason) {
+        addLog(new LogEntry(System.currentTimeMillis(), LogAction.UNJAIL, playerUuid, playerName,
+                executorUuid(executor), executor, null, LogEntry.NO_DURATION, reason, null));
     }
 
-    public void logTimeChange(String playerName, String executor, String action, long time) {
-        String details = String.format("Action: %s, Time: %ds", action, time);
-        addLog("TIME_CHANGE", playerName, executor, details);
+    public void logTimeChange(UUID playerUuid, String playerName, String executor, String action, long time) {
+        addLog(new LogEntry(System.currentTimeMillis(), LogAction.TIME_CHANGE, playerUuid, playerName,
+                executorUuid(executor), executor, null, time, null, action));
+    }
+
+    public void logTransfer(UUID playerUuid, String playerName, String executor, String fromJail, String toJail) {
+        addLog(new LogEntry(System.currentTimeMillis(), LogAction.TRANSFER, playerUuid, playerName,
+                executorUuid(executor), executor, toJail, LogEntry.NO_DURATION, null, fromJail));
     }
 
     public void logJailCreate(String executor, String jailName, String world, double x, double y, double z) {
-        String details = String.format("Jail: %s, Location: %s %.1f %.1f %.1f", jailName, world, x, y, z);
-        addLog("JAIL_CREATE", "-", executor, details);
+        String location = world + " " + Math.round(x * 10) / 10.0 + " " + Math.round(y * 10) / 10.0 + " " + Math.round(z * 10) / 10.0;
+        addLog(new LogEntry(System.currentTimeMillis(), LogAction.JAIL_CREATE, null, null,
+                executorUuid(executor), executor, jailName, LogEntry.NO_DURATION, null, location));
     }
 
     public void logJailDelete(String executor, String jailName) {
-        String details = String.format("Jail: %s", jailName);
-        addLog("JAIL_DELETE", "-", executor, details);
+        addLog(new LogEntry(System.currentTimeMillis(), LogAction.JAIL_DELETE, null, null,
+                executorUuid(executor), executor, jailName, LogEntry.NO_DURATION, null, null));
     }
 
-    private void addLog(String action, String player, String executor, String details) {
-        String timestamp = dateFormat.format(new Date());
-        LogEntry entry = new LogEntry(timestamp, action, player, executor, details);
-
-        logCache.add(entry);
-
-        // Trim logs if exceeding max entries
-        int maxEntries = plugin.getConfigManager().getMaxLogEntries();
-        if (maxEntries > 0 && logCache.size() > maxEntries) {
-            logCache.remove(0); // Remove oldest entry
-        }
+    // Executors are recorded by name; console and system actions have no UUID
+    private static UUID executorUuid(String executor) {
+        Player player = executor != null ? Bukkit.getPlayerExact(executor) : null;
+        return player != null ? player.getUniqueId() : null;
+    }
 
-        saveLogs();
+    private void addLog(LogEntry entry) {
+        writer.append(entry);
 
         if (plugin.getConfigManager().isDebugEnabled()) {
-            plugin.getLogger().info(String.format("[LOG] %s | %s | %s | %s | %s",
-                    timestamp, action, player, executor, details));
+            plugin.getLogger().info("[LOG] " + entry);
         }
     }
 
-    public List<LogEntry> getLogs() {
-        return new ArrayList<>(logCache);
+    /**
+     * Returns one page of matching entries, page 1 being the newest.
+     * Entries written moments ago may not be visible until the appender thread has flushed them,
+     * older entries not until it has finished indexing the segments after a start or reload.
+     */
+    public LogPage query(AuditLogIndex.Query query, int page, int pageSize) {
+        int skip = Math.max(0, page - 1) * pageSize;
+        return readPage(index.query(query, -1, skip, pageSize), page);
     }
 
-    public List<LogEntry> getLogsForPlayer(String playerName) {
-        return logCache.stream()
-                .filter(entry -> entry.getPlayer().equals(playerName))
-                .toList();
+    /**
+     * Returns the matches older than {@code cursor}, as returned by {@link LogPage#getCursor()} of the page before.
+     * Unlike {@link #query} it neither skips over the newer matches again nor shifts when entries are added meanwhile.
+     */
+    public LogPage queryBefore(AuditLogIndex.Query query, int cursor, int page, int pageSize) {
+        return readPage(index.query(query, cursor, 0, pageSize), page);
     }
 
-    public List<LogEntry> getLogsByAction(String action) {
-        return logCache.stream()
-                .filter(entry -> entry.getAction().equals(action))
-                .toList();
+    private LogPage readPage(AuditLogIndex.Result result, int page) {
+        List<LogEntry> entries = new ArrayList<>(result.size());
+        Map<File, RandomAccessFile> open = new HashMap<>();
+
+        try {
+            for (int i = 0; i < result.size(); i++) {
+                RandomAccessFile file = open.get(result.segments()[i]);
+                if (file == null) {
+                    file = new RandomAccessFile(result.segments()[i], "r");
+                    open.put(result.segments()[i], file);
+                }
+
+                byte[] bytes = new byte[result.lengths()[i]];
+                file.seek(result.offsets()[i]);
+                file.readFully(bytes);
+
+                LogEntry entry = decode(new String(bytes, StandardCharsets.UTF_8).trim());
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not read log entries: " + e);
+        } finally {
+            for (RandomAccessFile file : open.values()) {
+                try {
+                    file.close();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+
+        // Index order is newest first, display oldest first
+        Collections.reverse(entries);
+        return new LogPage(entries, page, result.lastId(), result.hasMore());
     }
 
-    private void saveLogs() {
-        List<String> logEntries = new ArrayList<>();
+    private static String encode(LogEntry entry) {
+        JsonObject json = new JsonObject();
+        json.addProperty("time", entry.getTime());
+        json.addProperty("action", entry.getAction().name());
+        addProperty(json, "player", entry.getPlayerUuid());
+        addProperty(json, "player-name", entry.getPlayerName());
+        addProperty(json, "executor", entry.getExecutorUuid());
+        addProperty(json, "executor-name", entry.getExecutorName());
+        addProperty(json, "jail", entry.getJail());
+        if (entry.getDuration() != LogEntry.NO_DURATION) {
+            json.addProperty("duration", entry.getDuration());
+        }
+        addProperty(json, "reason", entry.getReason());
+        addProperty(json, "extra", entry.getExtra());
+        if (entry.isLegacy()) {
+            json.addProperty("details", entry.getDetails());
+        }
+        return json.toString();
+    }
 
-        for (LogEntry entry : logCache) {
-            String logLine = String.format("%s|%s|%s|%s|%s",
-                    entry.getTimestamp(),
-                    entry.getAction(),
-                    entry.getPlayer(),
-                    entry.getExecutor(),
-                    entry.getDetails()
-            );
-            logEntries.add(logLine);
+    private static void addProperty(JsonObject json, String key, Object value) {
+        if (value != null) {
+            json.addProperty(key, value.toString());
         }
+    }
 
-        logs.set("logs", logEntries);
+    private static LogEntry decode(String line) {
+        if (line.isBlank()) {
+            return null;
+        }
 
         try {
-            logs.save(logsFile);
-        } catch (IOException e) {
-            plugin.getLogger().severe( "Could not save logs.yml: " + e);
+            JsonObject json = JsonParser.parseString(line).getAsJsonObject();
+            long time = json.get("time").getAsLong();
+            LogAction action = LogAction.parse(json.get("action").getAsString());
+            if (action == null) {
+                return null;
+            }
+
+            // Records migrated from logs.yml only carry pre-formatted details
+            if (json.has("details")) {
+                String playerName = json.has("player-name") ? getString(json, "player-name") : getString(json, "player");
+                String executorName = json.has("executor-name") ? getString(json, "executor-name") : getString(json, "executor");
+                return LogEntry.legacy(time, action, playerName, executorName, json.get("details").getAsString());
+            }
+
+            String player = getString(json, "player");
+            String executor = getString(json, "executor");
+            return new LogEntry(
+                    time,
+                    action,
+                    player != null ? UUID.fromString(player) : null,
+                    getString(json, "player-name"),
+                    executor != null ? UUID.fromString(executor) : null,
+                    getString(json, "executor-name"),
+                    getString(json, "jail"),
+                    json.has("duration") ? json.get("duration").getAsLong() : LogEntry.NO_DURATION,
+                    getString(json, "reason"),
+                    getString(json, "extra")
+            );
+        } catch (JsonParseException | IllegalArgumentException | IllegalStateException
+                 | NullPointerException | UnsupportedOperationException e) {
+            // Torn or foreign line, e.g. after a crash mid-write
+            return null;
         }
     }
 
+    private static String getString(JsonObject json, String key) {
+        return json.has(key) && !json.get(key).isJsonNull() ? json.get(key).getAsString() : null;
+    }
+
     public void reload() {
-        logs = YamlConfiguration.loadConfiguration(logsFile);
-        loadLogs();
+        writer.stop();
+        start();
     }
 
     public void shutdown() {
-        saveLogs();
-        logCache.clear();
+        writer.stop();
+    }
+
+    public static class LogPage {
+        private final List<LogEntry> entries;
+        private final int page;
+        private final int cursor;
+        private final boolean hasMore;
+
+        public LogPage(List<LogEntry> entries, int page, int cursor, boolean hasMore) {
+            this.entries = entries;
+            this.page = page;
+            this.cursor = cursor;
+            this.hasMore = hasMore;
+        }
+
+        public List<LogEntry> getEntries() { return entries; }
+        public int getPage() { return page; }
+        public int getCursor() { return cursor; }
+        public boolean hasMore() { return hasMore; }
+        public boolean isEmpty() { return entries.isEmpty(); }
     }
 
     public static class LogEntry {
-        private final String timestamp;
-        private final String action;
-        private final String player;
-        private final String executor;
-        private final String details;
-
-        public LogEntry(String timestamp, String action, String player, String executor, String details) {
-            this.timestamp = timestamp;
+        public static final long NO_DURATION = -1L;
+
+        private final long time;
+        private final LogAction action;
+        private final UUID playerUuid;
+        private final String playerName;
+        private final UUID executorUuid;
+        private final String executorName;
+        private final String jail;
+        private final long duration;
+        private final String reason;
+        private final String extra;
+        private final boolean legacy;
+
+        // Formatted on first display only
+        private String details;
+
+        public LogEntry(long time, LogAction action, UUID playerUuid, String playerName,
+                        UUID executorUuid, String executorName, String jail, long duration,
+                        String reason, String extra) {
+            this(time, action, playerUuid, playerName, executorUuid, executorName, jail, duration, reason, extra, null);
+        }
+
+        private LogEntry(long time, LogAction action, UUID playerUuid, String playerName,
+                         UUID executorUuid, String executorName, String jail, long duration,
+                         String reason, String extra, String details) {
+            this.time = time;
             this.action = action;
-            this.player = player;
-            this.executor = executor;
+            this.playerUuid = playerUuid;
+            this.playerName = playerName != null && !playerName.isEmpty() ? playerName : null;
+            this.executorUuid = executorUuid;
+            this.executorName = executorName;
+            this.jail = jail;
+            this.duration = duration;
+            this.reason = reason;
+            this.extra = extra;
+            this.legacy = details != null;
             this.details = details;
         }
 
-        public String getTimestamp() { return timestamp; }
-        public String getAction() { return action; }
-        public String getPlayer() { return player; }
-        public String getExecutor() { return executor; }
-        public String getDetails() { return details; }
+        static LogEntry legacy(long time, LogAction action, String playerName, String executorName, String details) {
+            return new LogEntry(time, action, null, playerName, null, executorName, null, NO_DURATION, null, null, details);
+        }
+
+        public long getTime() { return time; }
+        public LogAction getAction() { return action; }
+        public UUID getPlayerUuid() { return playerUuid; }
+        public String getPlayerName() { return playerName; }
+        public UUID getExecutorUuid() { return executorUuid; }
+        public String getExecutorName() { return executorName; }
+        public String getJail() { return jail; }
+        public long getDuration() { return duration; }
+        public String getReason() { return reason; }
+        public String getExtra() { return extra; }
+        public boolean isLegacy() { return legacy; }
+
+        public String getPlayer() {
+            return playerName != null ? playerName : "-";
+        }
+
+        public String getExecutor() {
+            return executorName != null ? executorName : "-";
+        }
+
+        public String getTimestamp() {
+            return DATE_FORMAT.format(Instant.ofEpochMilli(time).atZone(ZoneId.systemDefault()));
+        }
+
+        public String getDetails() {
+            if (details == null) {
+                details = switch (action) {
+                    case JAIL -> "Jail: " + jail + ", Time: " + TimeUtils.formatTime(duration) + ", Reason: " + reason;
+                    case UNJAIL -> "Reason: " + reason;
+                    case TIME_CHANGE -> "Action: " + extra + ", Time: " + TimeUtils.formatTime(duration);
+                    case TRANSFER -> "From: " + extra + ", To: " + jail;
+                    case JAIL_CREATE -> "Jail: " + jail + ", Location: " + extra;
+                    case JAIL_DELETE -> "Jail: " + jail;
+                };
+            }
+            return details;
+        }
 
         @Override
         public String toString() {
-            return String.format("[%s] %s: %s by %s - %s", timestamp, action, player, executor, details);
+            return "[" + getTimestamp() + "] " + action + ": " + getPlayer() + " by " + getExecutor() + " - " + getDetails();
         }
     }
-}
\ No newline at end of file
+}
@@ -3,11 +3,14 @@ package org.misqzy.jailPlus.managers;
 import org.bukkit.Bukkit;
 import org.misqzy.jailPlus.JailPlus;
 import org.misqzy.jailPlus.hooks.PlaceholderHook;
+import org.misqzy.jailPlus.hooks.impl.LeaderboardHook;
 import org.misqzy.jailPlus.hooks.impl.StatisticsHook;
 import org.misqzy.jailPlus.integrations.JailPlusExpansion;
+import org.misqzy.jailPlus.integrations.PlaceholderCache;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.logging.Level;
 
 
@@ -59,6 +62,7 @@ public class PlaceholderManager {
         // Register default org.misqzy.jailPlus.hooks
         if (plugin.getStatisticsManager() != null) {
             registerHook(new StatisticsHook(plugin));
+            registerHook(new LeaderboardHook(plugin));
         }
 
         plugin.getLogger().fine("Registered defaults placeholders: " + hooks.size());
@@ -145,7 +149,10 @@ public class PlaceholderManager {
                 "%jailplus_stats_worst_jail_time%",
                 "%jailplus_stats_is_frequent_offender%",
                 "%jailplus_stats_average_jail_time%",
-                "%jailplus_stats_last_jail_reason%"
+                "%jailplus_stats_last_jail_reason%",
+                "%jailplus_stats_jailed_last_<days>d%",
+                "%jailplus_top_<jailed|time|longest>_<rank>_name%",
+                "%jailplus_top_<jailed|time|longest>_<rank>_value%"
         };
     }
 
@@ -154,4 +161,14 @@ public class PlaceholderManager {
             expansion.clearCache();
         }
     }
+
+    public void invalidateCache(UUID playerUuid) {
+        if (expansion != null) {
+            expansion.invalidateCache(playerUuid);
+        }
+    }
+
+    public PlaceholderCache getCache() {
+        return expansion != null ? expansion.getCache() : null;
+    }
 }
\ No newline at end of file
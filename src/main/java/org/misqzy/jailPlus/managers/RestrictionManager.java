@@ -0,0 +1,293 @@
+package org.misqzy.jailPlus.managers;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.inventory.InventoryOpenEvent;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.plugin.EventExecutor;
+import org.bukkit.scheduler.BukkitTask;
+import org.misqzy.jailPlus.JailPlus;
+import org.misqzy.jailPlus.data.JailData;
+import org.misqzy.jailPlus.data.JailRegion;
+import org.misqzy.jailPlus.data.PlayerJailData;
+import org.misqzy.jailPlus.listeners.RestrictionListener;
+import org.misqzy.jailPlus.utils.CommandAllowList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+
+/**
+ * Restriction bitmask per online prisoner, so listeners answer with a single lookup and bit test.
+ * Players without an entry have no restrictions. Masks are rebuilt on jail, join and reload,
+ * and periodically to pick up bypass permission changes.
+ * Each restriction handler is only registered with Bukkit while some online prisoner has that restriction,
+ * so with no prisoners online hot events never reach this plugin.
+ */
+public class RestrictionManager {
+
+    public static final int JAILED = 1;
+    public static final int COMMANDS = 1 << 1;
+    public static final int BLOCK_BREAK = 1 << 2;
+    public static final int BLOCK_PLACE = 1 << 3;
+    public static final int PVP = 1 << 4;
+    public static final int INVENTORY = 1 << 5;
+    public static final int TELEPORT = 1 << 6;
+    // Other players cannot damage this prisoner
+    public static final int PROTECTED = 1 << 7;
+    // Prisoner must stay inside the region of their jail
+    public static final int CONFINED = 1 << 8;
+
+    public record Confinement(String worldName, JailRegion region, String jailName) {
+    }
+
+    private static final String BYPASS_PERMISSION = "jailplus.bypass";
+
+    // Permission plugins do not fire events, so bypass is re-checked on this interval (in ticks)
+    private static final long REFRESH_INTERVAL = 100L;
+
+    private final JailPlus plugin;
+    private final JailManager jailManager;
+    private final ConfigManager configManager;
+
+    private final Map<UUID, Integer> masks = new ConcurrentHashMap<>();
+    private final Map<UUID, Confinement> confinements = new ConcurrentHashMap<>();
+    private final BukkitTask refreshTask;
+
+    private volatile CommandAllowList commandAllowList;
+
+    private final RestrictionListener listener;
+    private final List<HandlerRegistration> handlers = new ArrayList<>();
+    private int registeredRestrictions = 0;
+
+    public RestrictionManager(JailPlus plugin, JailManager jailManager, ConfigManager configManager) {
+        this.plugin = plugin;
+        this.jailManager = jailManager;
+        this.configManager = configManager;
+
+        listener = new RestrictionListener(this, jailManager, plugin.getTeleportManager(),
+                plugin.getLocalizationManager());
+        handlers.add(handler(COMMANDS, PlayerCommandPreprocessEvent.class, EventPriority.HIGHEST, listener::onPlayerCommand));
+        handlers.add(handler(TELEPORT, PlayerTeleportEvent.class, EventPriority.HIGHEST, listener::onPlayerTeleport));
+        handlers.add(handler(BLOCK_BREAK, BlockBreakEvent.class, EventPriority.HIGH, listener::onBlockBreak));
+        handlers.add(handler(BLOCK_PLACE, BlockPlaceEvent.class, EventPriority.HIGH, listener::onBlockPlace));
+        handlers.add(handler(PVP | PROTECTED, EntityDamageByEntityEvent.class, EventPriority.HIGH, listener::onEntityDamageByEntity));
+        handlers.add(handler(INVENTORY, InventoryOpenEvent.class, EventPriority.HIGH, listener::onInventoryOpen));
+        handlers.add(handler(CONFINED, PlayerMoveEvent.class, EventPriority.HIGH, listener::onPlayerMove));
+
+        compileCommandAllowList();
+        refreshAll();
+
+        // Commands of plugins enabled after this one are only in the command map once startup is done
+        Bukkit.getScheduler().runTask(plugin, this::compileCommandAllowList);
+
+        this.refreshTask = Bukkit.getScheduler().runTaskTimer(plugin, this::refreshPrisoners,
+                REFRESH_INTERVAL, REFRESH_INTERVAL);
+    }
+
+    public boolean has(Player player, int restriction) {
+        if (masks.isEmpty()) {
+            return false;
+        }
+        Integer mask = masks.get(player.getUniqueId());
+        return mask != null && (mask & restriction) != 0;
+    }
+
+    public boolean isCommandAllowed(String message) {
+        return commandAllowList.isAllowed(message);
+    }
+
+    public void reload() {
+        compileCommandAllowList();
+        refreshAll();
+    }
+
+    private void compileCommandAllowList() {
+        List<String> entries = new ArrayList<>(configManager.getUnblockedCommands());
+        entries.add("jail");
+        commandAllowList = CommandAllowList.compile(entries, Bukkit.getCommandMap());
+    }
+
+    /**
+     * Region the player is confined to, or {@code null} if they may move freely.
+     */
+    public Confinement getConfinement(Player player) {
+        return confinements.isEmpty() ? null : confinements.get(player.getUniqueId());
+    }
+
+    public void update(Player player) {
+        int previous = store(player, computeMask(player));
+        if (previous != masks.getOrDefault(player.getUniqueId(), 0)) {
+            updateHandlers();
+        }
+    }
+
+    public void remove(UUID playerUuid) {
+        confinements.remove(playerUuid);
+        listener.forget(playerUuid);
+        if (masks.remove(playerUuid) != null) {
+            updateHandlers();
+        }
+    }
+
+    public void refreshAll() {
+        masks.clear();
+        confinements.clear();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            store(player, computeMask(player));
+        }
+        updateHandlers();
+    }
+
+    private void refreshPrisoners() {
+        for (UUID playerUuid : masks.keySet()) {
+            Player player = Bukkit.getPlayer(playerUuid);
+            if (player == null) {
+                masks.remove(playerUuid);
+                confinements.remove(playerUuid);
+            } else {
+                store(player, computeMask(player));
+            }
+        }
+        updateHandlers();
+    }
+
+    // Returns the previous mask, 0 if there was none
+    private int store(Player player, int mask) {
+        UUID playerUuid = player.getUniqueId();
+
+        Confinement confinement = (mask & CONFINED) != 0 ? resolveConfinement(player) : null;
+        if (confinement == null) {
+            mask &= ~CONFINED;
+            confinements.remove(playerUuid);
+        } else {
+            confinements.put(playerUuid, confinement);
+        }
+
+        Integer previous = mask == 0 ? masks.remove(playerUuid) : masks.put(playerUuid, mask);
+        return previous != null ? previous : 0;
+    }
+
+    private Confinement resolveConfinement(Player player) {
+        PlayerJailData jailData = jailManager.getJailData(player);
+        if (jailData == null) {
+            return null;
+        }
+
+        JailData jail = jailManager.getJail(jailData.getJailName());
+        if (jail == null || jail.getRegion() == null) {
+            return null;
+        }
+
+        return new Confinement(jail.getWorldName(), jail.getRegion(), jail.getName());
+    }
+
+    private void updateHandlers() {
+        int active = 0;
+        for (int mask : masks.values()) {
+            active |= mask;
+        }
+
+        if (active == registeredRestrictions) {
+            return;
+        }
+        registeredRestrictions = active;
+
+        int registered = 0;
+        for (HandlerRegistration handler : handlers) {
+            handler.setRegistered((active & handler.restrictions) != 0);
+            if (handler.registered) {
+                registered++;
+            }
+        }
+        plugin.getLogger().fine("Restriction handlers registered: " + registered + "/" + handlers.size());
+    }
+
+    private <E extends Event> HandlerRegistration handler(int restrictions, Class<E> eventClass,
+                                                          EventPriority priority, Consumer<E> handler) {
+        return new HandlerRegistration(restrictions, eventClass, priority, (listener, event) -> {
+            if (eventClass.isInstance(event)) {
+                handler.accept(eventClass.cast(event));
+            }
+        });
+    }
+
+    private int computeMask(Player player) {
+        if (!jailManager.isPlayerJailed(player)) {
+            return 0;
+        }
+
+        ConfigManager.Restrictions restrictions = configManager.getRestrictions();
+        int mask = JAILED;
+
+        if (restrictions.pvp() && restrictions.damageToPrisoners()) {
+            mask |= PROTECTED;
+        }
+
+        if (player.hasPermission(BYPASS_PERMISSION)) {
+            return mask;
+        }
+
+        if (restrictions.commandUsage()) mask |= COMMANDS;
+        if (restrictions.blockBreak()) mask |= BLOCK_BREAK;
+        if (restrictions.blockPlace()) mask |= BLOCK_PLACE;
+        if (restrictions.pvp()) mask |= PVP;
+        if (restrictions.inventory()) mask |= INVENTORY;
+        if (restrictions.teleport()) mask |= TELEPORT;
+        if (restrictions.escape()) mask |= CONFINED;
+
+        return mask;
+    }
+
+    public void shutdown() {
+        refreshTask.cancel();
+        masks.clear();
+        confinements.clear();
+        updateHandlers();
+    }
+
+    /**
+     * One restriction handler, also serving as its own listener handle so it can be unregistered alone.
+     */
+    private final class HandlerRegistration implements Listener {
+        private final int restrictions;
+        private final Class<? extends Event> eventClass;
+        private final EventPriority priority;
+        private final EventExecutor executor;
+        private boolean registered = false;
+
+        private HandlerRegistration(int restrictions, Class<? extends Event> eventClass,
+                                    EventPriority priority, EventExecutor executor) {
+            this.restrictions = restrictions;
+            this.eventClass = eventClass;
+            this.priority = priority;
+            this.executor = executor;
+        }
+
+        private void setRegistered(boolean register) {
+            if (register == registered) {
+                return;
+            }
+
+            if (register) {
+                Bukkit.getPluginManager().registerEvent(eventClass, this, priority, executor, plugin);
+            } else {
+                HandlerList.unregisterAll(this);
+            }
+            registered = register;
+        }
+    }
+}
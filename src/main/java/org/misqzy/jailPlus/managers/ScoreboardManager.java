@@ -4,13 +4,13 @@ import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.scoreboard.*;
 import org.misqzy.jailPlus.JailPlus;
 import org.misqzy.jailPlus.data.PlayerJailData;
 import org.misqzy.jailPlus.utils.TimeUtils;
 
+import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.UUID;
@@ -23,8 +23,34 @@ public class ScoreboardManager {
     private final LocalizationManager localizationManager;
     private final ConfigManager configManager;
 
-    private final Map<UUID, Scoreboard> playerScoreboards;
-    private final Map<UUID, BukkitTask> updateTasks;
+    private final Map<UUID, Sidebar> playerScoreboards;
+
+    // Round-robin queue ordered by next update tick, driven by a single ticker
+    private final ArrayDeque<Sidebar> updateQueue;
+    private final BukkitTask ticker;
+    private long currentTick = 0;
+
+    // Fixed line layout, each slot owns one invisible entry and a team whose prefix carries the text
+    private static final int SLOT_BLANK_TOP = 0;
+    private static final int SLOT_TIME = 1;
+    private static final int SLOT_BLANK_TIME = 2;
+    private static final int SLOT_REASON = 3;
+    private static final int SLOT_BLANK_REASON = 4;
+    private static final int SLOT_JAIL = 5;
+    private static final int SLOT_SEPARATOR = 6;
+    private static final int SLOT_JAILED_BY = 7;
+    private static final int SLOT_BLANK_JAILED_BY = 8;
+    private static final int SLOT_PROGRESS = 9;
+    private static final int LINE_COUNT = 10;
+
+    private static final String[] LINE_ENTRIES = new String[LINE_COUNT];
+
+    static {
+        String codes = "0123456789abcdef";
+        for (int i = 0; i < LINE_COUNT; i++) {
+            LINE_ENTRIES[i] = "\u00a7" + codes.charAt(i) + "\u00a7r";
+        }
+    }
 
     private final org.bukkit.scoreboard.ScoreboardManager bukkitScoreboardManager;
 
@@ -33,7 +59,7 @@ public class ScoreboardManager {
         this.localizationManager = plugin.getLocalizationManager();
         this.configManager = plugin.getConfigManager();
         this.playerScoreboards = new HashMap<>();
-        this.updateTasks = new HashMap<>();
+        this.updateQueue = new ArrayDeque<>();
 
         this.bukkitScoreboardManager = Bukkit.getScoreboardManager();
 
@@ -41,6 +67,8 @@ public class ScoreboardManager {
             plugin.getLogger().severe("ScoreboardManager unavailable! Scoreboard functions disabled.");
         }
 
+        this.ticker = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+
         plugin.getLogger().fine("ScoreboardManager initialized");
     }
 
@@ -51,7 +79,10 @@ public class ScoreboardManager {
         }
 
         try {
-            hideJailScoreboard(player);
+            Sidebar previous = playerScoreboards.remove(player.getUniqueId());
+            if (previous != null) {
+                previous.active = false;
+            }
 
             Scoreboard scoreboard = bukkitScoreboardManager.getNewScoreboard();
 
@@ -62,12 +93,15 @@ public class ScoreboardManager {
                     ));
             objective.setDisplaySlot(DisplaySlot.SIDEBAR);
 
+            Sidebar sidebar = new Sidebar(player, scoreboard, objective);
+
             player.setScoreboard(scoreboard);
-            playerScoreboards.put(player.getUniqueId(), scoreboard);
+            playerScoreboards.put(player.getUniqueId(), sidebar);
 
-            updateScoreboardContent(player, jailData, objective);
+            updateScoreboardContent(player, jailData, sidebar);
 
-            startUpdateTimer(player);
+            sidebar.nextUpdateTick = currentTick + getUpdateInterval();
+            updateQueue.addLast(sidebar);
 
             if (configManager.isDebugEnabled()) {
                 plugin.getLogger().fine("Jail scoreboard displayed for player: " + player.getName());
@@ -80,15 +114,12 @@ public class ScoreboardManager {
 
 
     public void hideJailScoreboard(Player player) {
-        UUID uuid = player.getUniqueId();
-
-        BukkitTask task = updateTasks.remove(uuid);
-        if (task != null) {
-            task.cancel();
+        Sidebar sidebar = playerScoreboards.remove(player.getUniqueId());
+        if (sidebar != null) {
+            // Dropped lazily by the ticker
+            sidebar.active = false;
         }
 
-        playerScoreboards.remove(uuid);
-
         if (bukkitScoreboardManager != null) {
             player.setScoreboard(bukkitScoreboardManager.getMainScoreboard());
         }
@@ -99,87 +130,62 @@ public class ScoreboardManager {
     }
 
 
-    private void updateScoreboardContent(Player player, PlayerJailData jailData, Objective objective) {
+    private void updateScoreboardContent(Player player, PlayerJailData jailData, Sidebar sidebar) {
         if (jailData == null) {
             return;
         }
 
         try {
-            for (String entry : objective.getScoreboard().getEntries()) {
-                objective.getScoreboard().resetScores(entry);
-            }
+            String[] lines = renderLines(jailData);
 
-            String jailName = jailData.getJailName();
-            String reason = jailData.getReason();
-            String jailedBy = jailData.getJailedBy();
-            long remainingTime = jailData.getRemainingTime();
-            String timeFormatted = TimeUtils.formatTime(remainingTime);
-
-            String timeKey = remainingTime <= 300 ? "scoreboard.time-line-urgent" : "scoreboard.time-line";
-            if (remainingTime == Long.MAX_VALUE) {
-                timeKey = "scoreboard.time-line-permanent";
-                timeFormatted = "";
+            for (int slot = 0; slot < LINE_COUNT; slot++) {
+                sidebar.setLine(slot, lines[slot]);
             }
 
-            int line = 15;
-
-            setScoreboardLine(objective, " ", line--);
-
-            String timeLine = formatScoreboardLine(timeKey, timeFormatted);
-            setScoreboardLine(objective, timeLine, line--);
-
-            setScoreboardLine(objective, "  ", line--);
-
-            String shortReason = reason.length() > 20 ? reason.substring(0, 17) + "..." : reason;
-            String reasonLine = formatScoreboardLine("scoreboard.reason-line", shortReason);
-            setScoreboardLine(objective, reasonLine, line--);
-
-            setScoreboardLine(objective, "   ", line--);
+        } catch (Exception e) {
+            plugin.getLogger().log(Level.WARNING, "Error updating scoreboard for " + player.getName(), e);
+        }
+    }
 
 
-            String jailLine = formatScoreboardLine("scoreboard.jail-line", jailName);
-            setScoreboardLine(objective, jailLine, line--);
+    // Raw (unparsed) text per slot, null hides the line
+    private String[] renderLines(PlayerJailData jailData) {
+        String[] lines = new String[LINE_COUNT];
 
-            String separator = formatScoreboardLine("scoreboard.separator", "");
-            setScoreboardLine(objective, separator, line--);
+        String jailName = jailData.getJailName();
+        String reason = jailData.getReason();
+        long remainingTime = jailData.getRemainingTime();
+        long totalTime = jailData.getJailTime();
 
-            if (configManager.isScoreboardShowJailedBy()) {
-                String jailedByLine = formatScoreboardLine("scoreboard.jailed-by-line", jailedBy);
-                setScoreboardLine(objective, jailedByLine, line--);
+        String timeLine;
+        if (totalTime == Long.MAX_VALUE) {
+            timeLine = localizationManager.getRawMessage("scoreboard.time-line-permanent", "");
+        } else {
+            String timeKey = remainingTime <= 300 ? "scoreboard.time-line-urgent" : "scoreboard.time-line";
+            timeLine = localizationManager.getRawMessage(timeKey, TimeUtils.formatTime(remainingTime));
+        }
 
-                setScoreboardLine(objective, "    ", line--);
-            }
+        String shortReason = reason.length() > 20 ? reason.substring(0, 17) + "..." : reason;
 
-            if (configManager.isScoreboardShowExtraInfo()) {
-                long totalTime = jailData.getJailTime();
-                if (totalTime > 0 && totalTime != Long.MAX_VALUE) {
-                    int percentage = (int) ((totalTime - remainingTime) * 100 / totalTime);
-                    String progressLine = formatScoreboardLine("scoreboard.progress-line", String.valueOf(percentage));
-                    setScoreboardLine(objective, progressLine, line--);
-                }
-            }
+        lines[SLOT_BLANK_TOP] = "";
+        lines[SLOT_TIME] = timeLine;
+        lines[SLOT_BLANK_TIME] = "";
+        lines[SLOT_REASON] = localizationManager.getRawMessage("scoreboard.reason-line", shortReason);
+        lines[SLOT_BLANK_REASON] = "";
+        lines[SLOT_JAIL] = localizationManager.getRawMessage("scoreboard.jail-line", jailName);
+        lines[SLOT_SEPARATOR] = localizationManager.getRawMessage("scoreboard.separator", "");
 
-        } catch (Exception e) {
-            plugin.getLogger().log(Level.WARNING, "Ошибка обновления scoreboard для " + player.getName(), e);
+        if (configManager.isScoreboardShowJailedBy()) {
+            lines[SLOT_JAILED_BY] = localizationManager.getRawMessage("scoreboard.jailed-by-line", jailData.getJailedBy());
+            lines[SLOT_BLANK_JAILED_BY] = "";
         }
-    }
 
-
-    private void setScoreboardLine(Objective objective, String text, int score) {
-        if (text.length() > 40) {
-            text = text.substring(0, 37) + "...";
+        if (configManager.isScoreboardShowExtraInfo() && totalTime > 0 && totalTime != Long.MAX_VALUE) {
+            int percentage = (int) ((totalTime - remainingTime) * 100 / totalTime);
+            lines[SLOT_PROGRESS] = localizationManager.getRawMessage("scoreboard.progress-line", String.valueOf(percentage));
         }
 
-        Score scoreEntry = objective.getScore(text);
-        scoreEntry.setScore(score);
-    }
-
-
-    private String formatScoreboardLine(String key, String value) {
-        String rawMessage = localizationManager.getRawMessage(key, value);
-
-        Component component = localizationManager.parseMessage(rawMessage);
-        return LegacyComponentSerializer.legacySection().serialize(component);
+        return lines;
     }
 
 
@@ -187,58 +193,56 @@ public class ScoreboardManager {
         return localizationManager.getRawMessage("scoreboard.title");
     }
 
-    private void startUpdateTimer(Player player) {
-        UUID uuid = player.getUniqueId();
+    private void tick() {
+        currentTick++;
 
-        BukkitTask existingTask = updateTasks.get(uuid);
-        if (existingTask != null) {
-            existingTask.cancel();
-        }
+        int budget = configManager.getScoreboardMaxUpdatesPerTick();
+        int processed = 0;
 
-        BukkitTask updateTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (!player.isOnline()) {
-                    cancel();
-                    updateTasks.remove(uuid);
-                    playerScoreboards.remove(uuid);
-                    return;
-                }
+        Sidebar sidebar;
+        while ((sidebar = updateQueue.peekFirst()) != null && sidebar.nextUpdateTick <= currentTick) {
+            if (budget > 0 && processed >= budget) {
+                break; // Remaining sidebars stay due and are handled next tick
+            }
 
-                PlayerJailData jailData = plugin.getJailManager().getJailData(player);
-                if (jailData == null) {
-                    hideJailScoreboard(player);
-                    cancel();
-                    return;
-                }
+            updateQueue.pollFirst();
+            if (!sidebar.active) {
+                continue;
+            }
 
-                Scoreboard scoreboard = playerScoreboards.get(uuid);
-                if (scoreboard != null) {
-                    Objective objective = scoreboard.getObjective("jail_info");
-                    if (objective != null) {
-                        updateScoreboardContent(player, jailData, objective);
-                    }
-                }
+            Player player = sidebar.player;
+            if (!player.isOnline()) {
+                sidebar.active = false;
+                playerScoreboards.remove(player.getUniqueId(), sidebar);
+                continue;
             }
-        }.runTaskTimer(plugin, configManager.getScoreboardUpdateInterval(), configManager.getScoreboardUpdateInterval());
 
-        updateTasks.put(uuid, updateTask);
+            PlayerJailData jailData = plugin.getJailManager().getJailData(player);
+            if (jailData == null) {
+                hideJailScoreboard(player);
+                continue;
+            }
+
+            updateScoreboardContent(player, jailData, sidebar);
+            processed++;
+
+            sidebar.nextUpdateTick = currentTick + getUpdateInterval();
+            updateQueue.addLast(sidebar);
+        }
+    }
+
+    private long getUpdateInterval() {
+        return Math.max(1L, configManager.getScoreboardUpdateInterval());
     }
 
 
     public void updateAllScoreboards() {
-        for (UUID uuid : playerScoreboards.keySet()) {
-            Player player = Bukkit.getPlayer(uuid);
-            if (player != null && player.isOnline()) {
+        for (Sidebar sidebar : playerScoreboards.values()) {
+            Player player = sidebar.player;
+            if (player.isOnline()) {
                 PlayerJailData jailData = plugin.getJailManager().getJailData(player);
                 if (jailData != null) {
-                    Scoreboard scoreboard = playerScoreboards.get(uuid);
-                    if (scoreboard != null) {
-                        Objective objective = scoreboard.getObjective("jail_info");
-                        if (objective != null) {
-                            updateScoreboardContent(player, jailData, objective);
-                        }
-                    }
+                    updateScoreboardContent(player, jailData, sidebar);
                 }
             }
         }
@@ -246,12 +250,8 @@ public class ScoreboardManager {
 
 
     public void shutdown() {
-        for (BukkitTask task : updateTasks.values()) {
-            if (task != null) {
-                task.cancel();
-            }
-        }
-        updateTasks.clear();
+        ticker.cancel();
+        updateQueue.clear();
 
         if (bukkitScoreboardManager != null) {
             for (UUID uuid : playerScoreboards.keySet()) {
@@ -276,4 +276,49 @@ public class ScoreboardManager {
     public int getActiveScoreboardCount() {
         return playerScoreboards.size();
     }
+
+
+    private final class Sidebar {
+        private final Player player;
+        private final Scoreboard scoreboard;
+        private final Objective objective;
+        private final Team[] teams;
+        private final String[] lastLines;
+
+        private long nextUpdateTick;
+        private boolean active = true;
+
+        private Sidebar(Player player, Scoreboard scoreboard, Objective objective) {
+            this.player = player;
+            this.scoreboard = scoreboard;
+            this.objective = objective;
+            this.teams = new Team[LINE_COUNT];
+            this.lastLines = new String[LINE_COUNT];
+
+            for (int slot = 0; slot < LINE_COUNT; slot++) {
+                Team team = scoreboard.registerNewTeam("jail_line_" + slot);
+                team.addEntry(LINE_ENTRIES[slot]);
+                teams[slot] = team;
+            }
+        }
+
+        // Only touches the line if its text changed since the last update
+        private void setLine(int slot, String text) {
+            String previous = lastLines[slot];
+            if (text == null ? previous == null : text.equals(previous)) {
+                return;
+            }
+
+            if (text == null) {
+                scoreboard.resetScores(LINE_ENTRIES[slot]);
+            } else {
+                teams[slot].prefix(text.isEmpty() ? Component.empty() : localizationManager.parseMessage(text));
+                if (previous == null) {
+                    objective.getScore(LINE_ENTRIES[slot]).setScore(LINE_COUNT - slot);
+                }
+            }
+
+            lastLines[slot] = text;
+        }
+    }
 }
\ No newline at end of file
@@ -1,140 +1,551 @@
 package org.misqzy.jailPlus.managers;
 
-import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.misqzy.jailPlus.JailPlus;
+import org.bukkit.scheduler.BukkitTask;
+import org.misqzy.jailPlus.storage.JournalFile;
+import org.misqzy.jailPlus.utils.Leaderboard;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 public class StatisticsManager {
 
+    public static final PlayerStatistics EMPTY = new PlayerStatistics("", 0L, 0, 0L, "", new int[0], 0L);
+
+    // Number of daily buckets kept per player, the longest window that can be queried
+    public static final int HISTORY_DAYS = 90;
+
+    // Journal entries after which statistics.yml is rewritten and the journal emptied
+    private static final int COMPACT_AFTER_ENTRIES = 4096;
+
+    public enum LeaderboardMetric {
+        JAILED("jailed"),
+        TIME("time"),
+        LONGEST("longest");
+
+        private final String key;
+
+        LeaderboardMetric(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        long valueOf(PlayerStatistics stats) {
+            return switch (this) {
+                case JAILED -> stats.getTimesJailed();
+                case TIME -> stats.getTotalJailTime();
+                case LONGEST -> stats.getLongestJailTime();
+            };
+        }
+
+        public static LeaderboardMetric fromKey(String key) {
+            for (LeaderboardMetric metric : values()) {
+                if (metric.key.equals(key.toLowerCase(Locale.ROOT))) {
+                    return metric;
+                }
+            }
+            return null;
+        }
+    }
+
     private final JailPlus plugin;
     private final File statisticsFile;
-    private FileConfiguration statistics;
-    private final Map<UUID, PlayerStatistics> cache;
+    private final JournalFile journal;
+    private final StatisticsStore store;
+
+    // Records changed since the last flush, latest version per player
+    private final Map<UUID, PlayerStatistics> pendingWrites;
+
+    // Persisted document, changed records are appended to the journal and folded in here;
+    // only touched under writeLock
+    private YamlConfiguration statistics;
+    private final Object writeLock = new Object();
+    private BukkitTask flushTask;
 
     public StatisticsManager(JailPlus plugin) {
         this.plugin = plugin;
-        this.cache = new HashMap<>();
+        this.store = new StatisticsStore(plugin.getConfigManager().getLeaderboardSize());
+        this.pendingWrites = new ConcurrentHashMap<>();
+        this.statisticsFile = new File(plugin.getDataFolder(), "statistics.yml");
+        this.journal = new JournalFile(new File(plugin.getDataFolder(), "statistics.journal"));
 
-        statisticsFile = new File(plugin.getDataFolder(), "statistics.yml");
-        if (!statisticsFile.exists()) {
-            try {
-                statisticsFile.createNewFile();
-            } catch (IOException e) {
-                plugin.getLogger().severe( "Could not create statistics.yml: " + e);
-            }
+        load();
+    }
+
+    private void load() {
+        ConfigManager configManager = plugin.getConfigManager();
+        store.setFrequentOffender(configManager.getFrequentOffenderWindowDays(), configManager.getFrequentOffenderThreshold());
+
+        synchronized (writeLock) {
+            statistics = YamlConfiguration.loadConfiguration(statisticsFile);
+            replayJournal();
+            loadStatistics();
         }
+        buildAggregates();
+
+        long interval = Math.max(1L, configManager.getStorageFlushInterval());
+        flushTask = Bukkit.getScheduler().runTaskTimer(plugin, this::scheduleFlush, interval, interval);
+    }
 
-        statistics = YamlConfiguration.loadConfiguration(statisticsFile);
-        loadStatistics();
+    // Changes since the last compaction, applied on top of statistics.yml
+    private void replayJournal() {
+        try {
+            List<String> lines = journal.readLines();
+            int applied = 0;
+            for (String line : lines) {
+                if (applyJournalLine(line)) {
+                    applied++;
+                }
+            }
+            if (!lines.isEmpty()) {
+                plugin.getLogger().fine("Replayed " + applied + "/" + lines.size() + " statistics journal entries");
+            }
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Error reading statistics journal", e);
+        }
     }
 
     private void loadStatistics() {
-        if (statistics.getConfigurationSection("players") == null) {
+        ConfigurationSection players = statistics.getConfigurationSection("players");
+        if (players == null) {
             return;
         }
 
-        for (String uuidString : statistics.getConfigurationSection("players").getKeys(false)) {
+        for (String uuidString : players.getKeys(false)) {
+            UUID uuid;
             try {
-                UUID uuid = UUID.fromString(uuidString);
-                String path = "players." + uuidString;
-
-                PlayerStatistics stats = new PlayerStatistics();
-                stats.totalJailTime = statistics.getLong(path + ".total-jail-time", 0);
-                stats.timesJailed = statistics.getInt(path + ".times-jailed", 0);
-                stats.longestJailTime = statistics.getLong(path + ".longest-jail-time", 0);
-                stats.lastJailReason = statistics.getString(path + ".last-jail-reason", "");
-
-                cache.put(uuid, stats);
+                uuid = UUID.fromString(uuidString);
             } catch (IllegalArgumentException e) {
                 plugin.getLogger().warning("Invalid UUID in statistics: " + uuidString);
+                continue;
+            }
+            String path = "players." + uuidString;
+
+            // A malformed day only drops that bucket, the rest of the record is kept
+            Map<Long, Integer> days = new HashMap<>();
+            long historyDay = 0L;
+            ConfigurationSection historySection = statistics.getConfigurationSection(path + ".history");
+            if (historySection != null) {
+                for (String dayString : historySection.getKeys(false)) {
+                    try {
+                        long day = Long.parseLong(dayString);
+                        days.put(day, historySection.getInt(dayString));
+                        historyDay = Math.max(historyDay, day);
+                    } catch (NumberFormatException e) {
+                        plugin.getLogger().warning("Skipping invalid statistics history day '" + dayString
+                                + "' of " + uuidString);
+                    }
+                }
+            }
+
+            int[] history = new int[HISTORY_DAYS];
+            for (Map.Entry<Long, Integer> entry : days.entrySet()) {
+                long day = entry.getKey();
+                if (historyDay - day < HISTORY_DAYS) {
+                    history[(int) Math.floorMod(day, (long) HISTORY_DAYS)] = entry.getValue();
+                }
             }
+
+            store.put(uuid, new PlayerStatistics(
+                    statistics.getString(path + ".name", ""),
+                    statistics.getLong(path + ".total-jail-time", 0),
+                    statistics.getInt(path + ".times-jailed", 0),
+                    statistics.getLong(path + ".longest-jail-time", 0),
+                    statistics.getString(path + ".last-jail-reason", ""),
+                    history,
+                    historyDay
+            ));
         }
 
-        plugin.getLogger().fine("Loaded statistics for " + cache.size() + " players");
+        plugin.getLogger().fine("Loaded statistics for " + store.size() + " players");
     }
 
-    public void addJailRecord(UUID playerUuid, long jailTime, String reason) {
-        PlayerStatistics stats = cache.computeIfAbsent(playerUuid, k -> new PlayerStatistics());
-
-        stats.totalJailTime += jailTime;
-        stats.timesJailed++;
-        stats.lastJailReason = reason;
+    private void buildAggregates() {
+        store.rebuildAggregates(plugin.getConfigManager().getLeaderboardSize());
 
-        if (jailTime > stats.longestJailTime) {
-            stats.longestJailTime = jailTime;
+        // Older files have no names; resolve them for ranked players only
+        for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+            Leaderboard leaderboard = store.getLeaderboard(metric);
+            for (Leaderboard.Entry entry : leaderboard.getEntries()) {
+                if (entry.name() == null || entry.name().isEmpty()) {
+                    String name = Bukkit.getOfflinePlayer(entry.uuid()).getName();
+                    if (name != null) {
+                        leaderboard.update(entry.uuid(), name, entry.value());
+                    }
+                }
+            }
         }
+    }
+
+    public void addJailRecord(UUID playerUuid, String playerName, long jailTime, String reason) {
+        PlayerStatistics updated = store.addJailRecord(playerUuid, playerName, jailTime, reason, StatisticsStore.today());
+        pendingWrites.put(playerUuid, updated);
+    }
+
+    public StatisticsStore getStore() {
+        return store;
+    }
+
+    public Leaderboard getLeaderboard(LeaderboardMetric metric) {
+        return store.getLeaderboard(metric);
+    }
+
+    public long getTotalJailings() {
+        return store.getTotalJailings();
+    }
+
+    public long getTotalJailTime() {
+        return store.getTotalJailTime();
+    }
 
-        savePlayerStatistics(playerUuid, stats);
+    public int getPlayersJailed() {
+        return store.size();
+    }
+
+    /**
+     * Returns the player's current statistics, or the shared {@link #EMPTY} record. Never allocates.
+     */
+    public PlayerStatistics getStatistics(UUID playerUuid) {
+        return store.getStatistics(playerUuid);
     }
 
     public long getTotalJailTime(UUID playerUuid) {
-        return cache.getOrDefault(playerUuid, new PlayerStatistics()).totalJailTime;
+        return getStatistics(playerUuid).getTotalJailTime();
     }
 
     public int getTimesJailed(UUID playerUuid) {
-        return cache.getOrDefault(playerUuid, new PlayerStatistics()).timesJailed;
+        return getStatistics(playerUuid).getTimesJailed();
     }
 
     public long getLongestJailTime(UUID playerUuid) {
-        return cache.getOrDefault(playerUuid, new PlayerStatistics()).longestJailTime;
+        return getStatistics(playerUuid).getLongestJailTime();
     }
 
     public String getLastJailReason(UUID playerUuid) {
-        return cache.getOrDefault(playerUuid, new PlayerStatistics()).lastJailReason;
+        return getStatistics(playerUuid).getLastJailReason();
     }
 
     public long getAverageJailTime(UUID playerUuid) {
-        PlayerStatistics stats = cache.get(playerUuid);
-        if (stats == null || stats.timesJailed == 0) {
-            return 0;
-        }
-        return stats.totalJailTime / stats.timesJailed;
+        return getStatistics(playerUuid).getAverageJailTime();
+    }
+
+    /**
+     * Times the player was jailed during the last {@code days} days (UTC), today included.
+     */
+    public int getJailCountInLastDays(UUID playerUuid, int days) {
+        return store.getJailCountInLastDays(playerUuid, days);
     }
 
     public boolean isFrequentOffender(UUID playerUuid) {
-        return getTimesJailed(playerUuid) >= 5;
+        return store.isFrequentOffender(playerUuid);
+    }
+
+    private void scheduleFlush() {
+        if (!pendingWrites.isEmpty()) {
+            Bukkit.getScheduler().runTaskAsynchronously(plugin, this::flushPending);
+        }
     }
 
-    private void savePlayerStatistics(UUID playerUuid, PlayerStatistics stats) {
-        String path = "players." + playerUuid.toString();
-        statistics.set(path + ".total-jail-time", stats.totalJailTime);
-        statistics.set(path + ".times-jailed", stats.timesJailed);
-        statistics.set(path + ".longest-jail-time", stats.longestJailTime);
-        statistics.set(path + ".last-jail-reason", stats.lastJailReason);
+    // Appends only the changed records to the journal, so a flush costs the changes and not the whole file
+    private void flushPending() {
+        synchronized (writeLock) {
+            if (pendingWrites.isEmpty()) {
+                return;
+            }
+
+            Map<UUID, PlayerStatistics> drained = new HashMap<>();
+            List<String> lines = new ArrayList<>();
+            for (UUID uuid : pendingWrites.keySet()) {
+                PlayerStatistics stats = pendingWrites.remove(uuid);
+                if (stats != null) {
+                    drained.put(uuid, stats);
+                    lines.add(encodeJournalLine(uuid, stats));
+                }
+            }
+
+            try {
+                journal.append(lines);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.SEVERE, "Error writing statistics journal", e);
+                // Newer changes queued meanwhile take precedence
+                drained.forEach(pendingWrites::putIfAbsent);
+                return;
+            }
+
+            for (String line : lines) {
+                applyJournalLine(line);
+            }
 
-        saveStatistics();
+            if (journal.getLineCount() >= COMPACT_AFTER_ENTRIES) {
+                compact();
+            }
+        }
     }
 
-    public void saveStatistics() {
+    // Rewrites statistics.yml with everything journaled so far; caller holds writeLock
+    private void compact() {
         try {
-            statistics.save(statisticsFile);
+            journal.compact(statisticsFile, statistics.saveToString());
         } catch (IOException e) {
-            plugin.getLogger().log(Level.SEVERE, "Could not save statistics.yml", e);
+            plugin.getLogger().log(Level.SEVERE, "Error saving statistics.yml", e);
+        }
+    }
+
+    // uuid, name, total, times, longest, reason, history as day:count pairs; tab separated
+    private static String encodeJournalLine(UUID uuid, PlayerStatistics stats) {
+        StringBuilder line = new StringBuilder(128);
+        line.append(uuid).append('\t');
+        appendEscaped(line, stats.getPlayerName()).append('\t');
+        line.append(stats.getTotalJailTime()).append('\t');
+        line.append(stats.getTimesJailed()).append('\t');
+        line.append(stats.getLongestJailTime()).append('\t');
+        appendEscaped(line, stats.getLastJailReason()).append('\t');
+        stats.forEachHistoryDay((day, count) -> line.append(day).append(':').append(count).append(','));
+        return line.toString();
+    }
+
+    // Writes one journal record into the document; caller holds writeLock
+    private boolean applyJournalLine(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != 7) {
+            return false; // Torn or foreign line
+        }
+
+        try {
+            String path = "players." + UUID.fromString(fields[0]);
+            long totalJailTime = Long.parseLong(fields[2]);
+            int timesJailed = Integer.parseInt(fields[3]);
+            long longestJailTime = Long.parseLong(fields[4]);
+
+            Map<String, Integer> history = new LinkedHashMap<>();
+            for (String entry : fields[6].split(",")) {
+                int colon = entry.indexOf(':');
+                if (colon <= 0) {
+                    continue;
+                }
+                try {
+                    history.put(String.valueOf(Long.parseLong(entry.substring(0, colon))),
+                            Integer.parseInt(entry.substring(colon + 1)));
+                } catch (NumberFormatException e) {
+                    plugin.getLogger().warning("Skipping invalid statistics history entry '" + entry + "' of " + fields[0]);
+                }
+            }
+
+            statistics.set(path + ".name", unescape(fields[1]));
+            statistics.set(path + ".total-jail-time", totalJailTime);
+            statistics.set(path + ".times-jailed", timesJailed);
+            statistics.set(path + ".longest-jail-time", longestJailTime);
+            statistics.set(path + ".last-jail-reason", unescape(fields[5]));
+
+            // Only non-empty days are written
+            statistics.set(path + ".history", null);
+            history.forEach((day, count) -> statistics.set(path + ".history." + day, count));
+            return true;
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Skipping invalid statistics journal entry: " + line);
+            return false;
+        }
+    }
+
+    private static StringBuilder appendEscaped(StringBuilder builder, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> builder.append("\\\\");
+                case '\t' -> builder.append("\\t");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                default -> builder.append(c);
+            }
+        }
+        return builder;
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != '\\' || i + 1 == value.length()) {
+                builder.append(c);
+                continue;
+            }
+            char escaped = value.charAt(++i);
+            builder.append(switch (escaped) {
+                case 't' -> '\t';
+                case 'n' -> '\n';
+                case 'r' -> '\r';
+                default -> escaped;
+            });
+        }
+        return builder.toString();
+    }
+
+    public void saveStatistics() {
+        flushPending();
+    }
+
+    // Stops the flush timer, writes what is pending and folds the journal into statistics.yml
+    private void close() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+
+        flushPending();
+        synchronized (writeLock) {
+            if (journal.getLineCount() > 0) {
+                compact();
+            }
         }
     }
 
     public void reload() {
-        cache.clear();
-        statistics = YamlConfiguration.loadConfiguration(statisticsFile);
-        loadStatistics();
+        close();
+        store.clear();
+        pendingWrites.clear();
+        load();
     }
 
     public void shutdown() {
-        saveStatistics();
-        cache.clear();
+        close();
+        store.clear();
+        pendingWrites.clear();
     }
 
-    private static class PlayerStatistics {
-        long totalJailTime = 0;
-        int timesJailed = 0;
-        long longestJailTime = 0;
-        String lastJailReason = "";
+    /**
+     * Immutable per-player statistics. Placeholder strings are rendered once per update
+     * so that reads never format or allocate.
+     * Recent history is a ring of {@link #HISTORY_DAYS} daily counters ending at {@code historyDay}.
+     */
+    public static final class PlayerStatistics {
+
+        public interface HistoryVisitor {
+            void accept(long day, int count);
+        }
+
+        private final String playerName;
+        private final long totalJailTime;
+        private final int timesJailed;
+        private final long longestJailTime;
+        private final String lastJailReason;
+        private final int[] dailyJails;
+        private final long historyDay;
+
+        private final String totalJailTimeText;
+        private final String timesJailedText;
+        private final String longestJailTimeText;
+        private final String averageJailTimeText;
+
+        private PlayerStatistics(String playerName, long totalJailTime, int timesJailed, long longestJailTime,
+                                 String lastJailReason, int[] dailyJails, long historyDay) {
+            this.playerName = playerName != null ? playerName : "";
+            this.totalJailTime = totalJailTime;
+            this.timesJailed = timesJailed;
+            this.longestJailTime = longestJailTime;
+            this.lastJailReason = lastJailReason != null ? lastJailReason : "";
+            this.dailyJails = dailyJails;
+            this.historyDay = historyDay;
+
+            this.totalJailTimeText = String.valueOf(totalJailTime);
+            this.timesJailedText = String.valueOf(timesJailed);
+            this.longestJailTimeText = String.valueOf(longestJailTime);
+            this.averageJailTimeText = String.valueOf(getAverageJailTime());
+        }
+
+        PlayerStatistics withJail(String name, long jailTime, String reason, long today) {
+            long total = totalJailTime + jailTime;
+            if (total < 0) {
+                // Permanent sentences saturate instead of overflowing
+                total = Long.MAX_VALUE;
+            }
+
+            int[] history = new int[HISTORY_DAYS];
+            long newestDay = Math.max(historyDay, today);
+            if (dailyJails.length == HISTORY_DAYS) {
+                // Keep only the buckets that are still inside the window ending at newestDay
+                long keepFrom = Math.max(historyDay - HISTORY_DAYS + 1, newestDay - HISTORY_DAYS + 1);
+                for (long day = keepFrom; day <= historyDay; day++) {
+                    int slot = slot(day);
+                    history[slot] = dailyJails[slot];
+                }
+            }
+            if (newestDay - today < HISTORY_DAYS) {
+                history[slot(today)]++;
+            }
+
+            // A prisoner jailed by UUID has no name yet, the known one is kept
+            String newName = name == null || name.isEmpty() ? playerName : name;
+            return new PlayerStatistics(newName, total, timesJailed + 1, Math.max(longestJailTime, jailTime), reason,
+                    history, newestDay);
+        }
+
+        private static int slot(long day) {
+            return (int) Math.floorMod(day, (long) HISTORY_DAYS);
+        }
+
+        /**
+         * Jails during the {@code days} days ending at {@code today}, at most {@link #HISTORY_DAYS}.
+         */
+        public int getJailCountSince(long today, int days) {
+            if (dailyJails.length != HISTORY_DAYS || days <= 0) {
+                return 0;
+            }
+
+            long from = Math.max(today - Math.min(days, HISTORY_DAYS) + 1, historyDay - HISTORY_DAYS + 1);
+            long to = Math.min(today, historyDay);
+
+            int count = 0;
+            for (long day = from; day <= to; day++) {
+                count += dailyJails[slot(day)];
+            }
+            return count;
+        }
+
+        public void forEachHistoryDay(HistoryVisitor visitor) {
+            if (dailyJails.length != HISTORY_DAYS) {
+                return;
+            }
+
+            for (long day = historyDay - HISTORY_DAYS + 1; day <= historyDay; day++) {
+                int count = dailyJails[slot(day)];
+                if (count > 0) {
+                    visitor.accept(day, count);
+                }
+            }
+        }
+
+        public String getPlayerName() { return playerName; }
+        public long getTotalJailTime() { return totalJailTime; }
+        public int getTimesJailed() { return timesJailed; }
+        public long getLongestJailTime() { return longestJailTime; }
+        public String getLastJailReason() { return lastJailReason; }
+
+        public long getAverageJailTime() {
+            return timesJailed == 0 ? 0 : totalJailTime / timesJailed;
+        }
+
+        public String getTotalJailTimeText() { return totalJailTimeText; }
+        public String getTimesJailedText() { return timesJailedText; }
+        public String getLongestJailTimeText() { return longestJailTimeText; }
+        public String getAverageJailTimeText() { return averageJailTimeText; }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,139 @@
+package org.misqzy.jailPlus.managers;
+
+import org.misqzy.jailPlus.managers.StatisticsManager.LeaderboardMetric;
+import org.misqzy.jailPlus.managers.StatisticsManager.PlayerStatistics;
+import org.misqzy.jailPlus.utils.Leaderboard;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory statistics: the per-player records and the server-wide aggregates maintained from them.
+ * Holds no files or server state, so placeholders read from it directly;
+ * {@link StatisticsManager} loads it and persists its changes.
+ */
+public final class StatisticsStore {
+
+    private static final long MILLIS_PER_DAY = 24L * 60L * 60L * 1000L;
+
+    private final Map<UUID, PlayerStatistics> records = new ConcurrentHashMap<>();
+
+    private final Map<LeaderboardMetric, Leaderboard> leaderboards = new EnumMap<>(LeaderboardMetric.class);
+    private final AtomicLong totalJailings = new AtomicLong();
+    private final AtomicLong totalJailTime = new AtomicLong();
+
+    private volatile int frequentOffenderWindowDays;
+    private volatile int frequentOffenderThreshold = 1;
+
+    public StatisticsStore(int leaderboardSize) {
+        resetLeaderboards(leaderboardSize);
+    }
+
+    /**
+     * @param windowDays days counted towards the threshold, 0 counts every jail
+     */
+    public void setFrequentOffender(int windowDays, int threshold) {
+        this.frequentOffenderWindowDays = Math.max(0, Math.min(StatisticsManager.HISTORY_DAYS, windowDays));
+        this.frequentOffenderThreshold = Math.max(1, threshold);
+    }
+
+    // Loaded records go in without touching the aggregates, rebuildAggregates follows the load
+    void put(UUID playerUuid, PlayerStatistics stats) {
+        records.put(playerUuid, stats);
+    }
+
+    // The only full pass, done once per load
+    void rebuildAggregates(int leaderboardSize) {
+        resetLeaderboards(leaderboardSize);
+        totalJailings.set(0);
+        totalJailTime.set(0);
+
+        for (Map.Entry<UUID, PlayerStatistics> entry : records.entrySet()) {
+            PlayerStatistics stats = entry.getValue();
+            totalJailings.addAndGet(stats.getTimesJailed());
+            addJailTime(stats.getTotalJailTime());
+            updateLeaderboards(entry.getKey(), stats);
+        }
+    }
+
+    private void resetLeaderboards(int size) {
+        for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+            leaderboards.put(metric, new Leaderboard(size));
+        }
+    }
+
+    private void updateLeaderboards(UUID playerUuid, PlayerStatistics stats) {
+        for (Map.Entry<LeaderboardMetric, Leaderboard> entry : leaderboards.entrySet()) {
+            entry.getValue().update(playerUuid, stats.getPlayerName(), entry.getKey().valueOf(stats));
+        }
+    }
+
+    private void addJailTime(long jailTime) {
+        totalJailTime.accumulateAndGet(jailTime, (total, added) -> {
+            long sum = total + added;
+            return sum < 0 ? Long.MAX_VALUE : sum;
+        });
+    }
+
+    /**
+     * Records a jail on {@code today} (UTC day number) and returns the player's updated record.
+     */
+    public PlayerStatistics addJailRecord(UUID playerUuid, String playerName, long jailTime, String reason, long today) {
+        PlayerStatistics updated = records.compute(playerUuid,
+                (uuid, stats) -> (stats != null ? stats : StatisticsManager.EMPTY).withJail(playerName, jailTime, reason, today));
+
+        totalJailings.incrementAndGet();
+        addJailTime(jailTime);
+        updateLeaderboards(playerUuid, updated);
+        return updated;
+    }
+
+    /**
+     * Returns the player's current statistics, or the shared {@link StatisticsManager#EMPTY} record. Never allocates.
+     */
+    public PlayerStatistics getStatistics(UUID playerUuid) {
+        PlayerStatistics stats = records.get(playerUuid);
+        return stats != null ? stats : StatisticsManager.EMPTY;
+    }
+
+    /**
+     * Times the player was jailed during the last {@code days} days (UTC), today included.
+     */
+    public int getJailCountInLastDays(UUID playerUuid, int days) {
+        return getStatistics(playerUuid).getJailCountSince(today(), days);
+    }
+
+    public boolean isFrequentOffender(UUID playerUuid) {
+        int windowDays = frequentOffenderWindowDays;
+        PlayerStatistics stats = getStatistics(playerUuid);
+        int count = windowDays > 0 ? stats.getJailCountSince(today(), windowDays) : stats.getTimesJailed();
+        return count >= frequentOffenderThreshold;
+    }
+
+    public Leaderboard getLeaderboard(LeaderboardMetric metric) {
+        return leaderboards.get(metric);
+    }
+
+    public long getTotalJailings() {
+        return totalJailings.get();
+    }
+
+    public long getTotalJailTime() {
+        return totalJailTime.get();
+    }
+
+    public int size() {
+        return records.size();
+    }
+
+    void clear() {
+        records.clear();
+    }
+
+    public static long today() {
+        return Math.floorDiv(System.currentTimeMillis(), MILLIS_PER_DAY);
+    }
+}
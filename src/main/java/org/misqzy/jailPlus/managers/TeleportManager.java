@@ -0,0 +1,142 @@
+package org.misqzy.jailPlus.managers;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.misqzy.jailPlus.JailPlus;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+
+
+/**
+ * All jail and release teleports go through here. The target chunk is loaded with getChunkAtAsync,
+ * held by a plugin chunk ticket until the player arrived, and the player is moved with teleportAsync,
+ * so the main thread never loads or generates a chunk for it.
+ * Counts teleports, their duration and how many had to wait for a chunk load.
+ */
+public class TeleportManager {
+
+    private final JailPlus plugin;
+
+    // Players with a teleport in flight
+    private final Set<UUID> teleporting = ConcurrentHashMap.newKeySet();
+
+    // Players whose teleport is scheduled for a later tick
+    private final Set<UUID> queued = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder teleports = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder chunkLoads = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public TeleportManager(JailPlus plugin) {
+        this.plugin = plugin;
+    }
+
+    public CompletableFuture<Boolean> teleport(Player player, Location target) {
+        queued.remove(player.getUniqueId());
+
+        World world = target != null ? target.getWorld() : null;
+        if (world == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        Location destination = target.clone();
+        int chunkX = destination.getBlockX() >> 4;
+        int chunkZ = destination.getBlockZ() >> 4;
+        UUID playerUuid = player.getUniqueId();
+        ChunkTicketManager tickets = plugin.getChunkTicketManager();
+
+        AtomicBoolean ticketAcquired = new AtomicBoolean(false);
+        long started = System.nanoTime();
+
+        if (!world.isChunkLoaded(chunkX, chunkZ)) {
+            chunkLoads.increment();
+        }
+        teleporting.add(playerUuid);
+
+        return world.getChunkAtAsync(chunkX, chunkZ)
+                .thenCompose(chunk -> {
+                    // The chunk is loaded now, the ticket only keeps it until the player is there
+                    tickets.acquire(world, chunkX, chunkZ);
+                    ticketAcquired.set(true);
+
+                    if (!player.isOnline()) {
+                        return CompletableFuture.completedFuture(false);
+                    }
+                    return player.teleportAsync(destination, PlayerTeleportEvent.TeleportCause.PLUGIN);
+                })
+                .exceptionally(error -> {
+                    plugin.getLogger().log(Level.WARNING, "Teleport of " + player.getName() + " failed", error);
+                    return false;
+                })
+                .whenComplete((success, error) -> {
+                    teleporting.remove(playerUuid);
+                    record(System.nanoTime() - started, Boolean.TRUE.equals(success));
+                    if (ticketAcquired.get() && plugin.isEnabled()) {
+                        Bukkit.getScheduler().runTask(plugin, () -> tickets.release(world, chunkX, chunkZ));
+                    }
+                });
+    }
+
+    private void record(long nanos, boolean success) {
+        teleports.increment();
+        if (!success) {
+            failures.increment();
+        }
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Marks a teleport scheduled for a later tick, so {@link #isTeleporting} already reports it
+     * and movement handlers do not start a second one. Cleared by {@link #teleport} or {@link #dequeue}.
+     */
+    public void queue(UUID playerUuid) {
+        queued.add(playerUuid);
+    }
+
+    public void dequeue(UUID playerUuid) {
+        queued.remove(playerUuid);
+    }
+
+    public boolean isTeleporting(Player player) {
+        UUID playerUuid = player.getUniqueId();
+        return (!teleporting.isEmpty() && teleporting.contains(playerUuid))
+                || (!queued.isEmpty() && queued.contains(playerUuid));
+    }
+
+    public long getTeleportCount() {
+        return teleports.sum();
+    }
+
+    public long getFailedCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Teleports whose target chunk was not loaded yet and had to be loaded asynchronously.
+     */
+    public long getChunkLoadCount() {
+        return chunkLoads.sum();
+    }
+
+    public double getAverageTeleportMillis() {
+        long count = teleports.sum();
+        return count == 0 ? 0.0 : totalNanos.sum() / 1_000_000.0 / count;
+    }
+
+    public double getMaxTeleportMillis() {
+        return maxNanos.get() / 1_000_000.0;
+    }
+}
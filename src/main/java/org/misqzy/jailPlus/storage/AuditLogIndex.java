@@ -0,0 +1,226 @@
+package org.misqzy.jailPlus.storage;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-memory index over the audit log segments.
+ * Only record positions are kept (segment, offset, length); entries themselves stay on disk.
+ * Record ids are assigned in write order, so every posting list is sorted ascending.
+ */
+public class AuditLogIndex {
+
+    public record Query(String player, String executor, String action, long since, long until) {
+
+        public static final Query ALL = new Query(null, null, null, 0L, 0L);
+    }
+
+    /**
+     * Positions of the matching records, newest first.
+     */
+    public record Result(File[] segments, long[] offsets, int[] lengths, int lastId, boolean hasMore) {
+
+        public int size() {
+            return offsets.length;
+        }
+    }
+
+    private final List<File> segments = new ArrayList<>();
+    private final Map<File, Integer> segmentIds = new HashMap<>();
+
+    private int size = 0;
+    private long[] times = new long[1024];
+    private long[] offsets = new long[1024];
+    private int[] lengths = new int[1024];
+    private int[] segmentOf = new int[1024];
+
+    private final Map<String, IdList> byPlayer = new HashMap<>();
+    private final Map<String, IdList> byExecutor = new HashMap<>();
+    private final Map<String, IdList> byAction = new HashMap<>();
+
+    public synchronized void add(File segment, long offset, int length,
+                                 long time, String player, String executor, String action) {
+        Integer segmentId = segmentIds.get(segment);
+        if (segmentId == null) {
+            segmentId = segments.size();
+            segments.add(segment);
+            segmentIds.put(segment, segmentId);
+        }
+
+        if (size == offsets.length) {
+            int capacity = size * 2;
+            times = Arrays.copyOf(times, capacity);
+            offsets = Arrays.copyOf(offsets, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            segmentOf = Arrays.copyOf(segmentOf, capacity);
+        }
+
+        int id = size++;
+        // Kept non-decreasing so time ranges can be binary searched even if the clock stepped back
+        times[id] = id > 0 ? Math.max(time, times[id - 1]) : time;
+        offsets[id] = offset;
+        lengths[id] = length;
+        segmentOf[id] = segmentId;
+
+        posting(byPlayer, player).add(id);
+        posting(byExecutor, executor).add(id);
+        posting(byAction, action).add(id);
+    }
+
+    private static IdList posting(Map<String, IdList> index, String key) {
+        return index.computeIfAbsent(normalize(key), k -> new IdList());
+    }
+
+    private static String normalize(String key) {
+        return key == null ? "" : key.toLowerCase(Locale.ROOT);
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        segments.clear();
+        segmentIds.clear();
+        size = 0;
+        byPlayer.clear();
+        byExecutor.clear();
+        byAction.clear();
+    }
+
+    /**
+     * Finds up to {@code limit} matches with an id below {@code before} (or all ids if negative),
+     * skipping the first {@code skip} matches, newest first.
+     */
+    public synchronized Result query(Query query, int before, int skip, int limit) {
+        int lo = query.since() > 0 ? lowerBound(query.since()) : 0;
+        int hi = query.until() > 0 ? lowerBound(query.until()) : size;
+        if (before >= 0) {
+            hi = Math.min(hi, before);
+        }
+
+        List<IdList> filters = new ArrayList<>(3);
+        if (!collectFilter(filters, byPlayer, query.player())
+                || !collectFilter(filters, byExecutor, query.executor())
+                || !collectFilter(filters, byAction, query.action())) {
+            return empty();
+        }
+
+        // Walk the shortest posting list and probe the others
+        IdList driver = null;
+        for (IdList filter : filters) {
+            if (driver == null || filter.size < driver.size) {
+                driver = filter;
+            }
+        }
+
+        int[] matches = new int[Math.max(0, limit)];
+        int found = 0;
+        int skipped = 0;
+        boolean hasMore = false;
+
+        int position = driver != null ? driver.lowerBound(hi) - 1 : hi - 1;
+        while (position >= 0) {
+            int id = driver != null ? driver.ids[position] : position;
+            if (id < lo) {
+                break;
+            }
+            position--;
+
+            if (!matchesAll(filters, driver, id)) {
+                continue;
+            }
+
+            if (skipped < skip) {
+                skipped++;
+                continue;
+            }
+
+            if (found == matches.length) {
+                hasMore = true;
+                break;
+            }
+            matches[found++] = id;
+        }
+
+        File[] resultSegments = new File[found];
+        long[] resultOffsets = new long[found];
+        int[] resultLengths = new int[found];
+        for (int i = 0; i < found; i++) {
+            int id = matches[i];
+            resultSegments[i] = segments.get(segmentOf[id]);
+            resultOffsets[i] = offsets[id];
+            resultLengths[i] = lengths[id];
+        }
+
+        int lastId = found > 0 ? matches[found - 1] : -1;
+        return new Result(resultSegments, resultOffsets, resultLengths, lastId, hasMore);
+    }
+
+    private static boolean collectFilter(List<IdList> filters, Map<String, IdList> index, String key) {
+        if (key == null) {
+            return true;
+        }
+
+        IdList list = index.get(normalize(key));
+        if (list == null) {
+            return false;
+        }
+
+        filters.add(list);
+        return true;
+    }
+
+    private static boolean matchesAll(List<IdList> filters, IdList driver, int id) {
+        for (IdList filter : filters) {
+            if (filter != driver && !filter.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int lowerBound(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static Result empty() {
+        return new Result(new File[0], new long[0], new int[0], -1, false);
+    }
+
+    private static final class IdList {
+        private int[] ids = new int[8];
+        private int size = 0;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        int lowerBound(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            return index >= 0 ? index : -index - 1;
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package org.misqzy.jailPlus.storage;
+
+import org.misqzy.jailPlus.JailPlus;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Append-only, segmented log of newline-delimited records.
+ * Records are queued by callers and encoded + written by a dedicated appender thread.
+ * A segment is closed once it reaches the configured size or age; closed segments are never rewritten.
+ */
+public class AuditLogWriter<T> {
+
+    public interface WriteListener<T> {
+        /**
+         * Called on the appender thread once the record is flushed to {@code segment}.
+         */
+        void onWritten(T record, File segment, long offset, int length);
+    }
+
+    private record Written<T>(T record, File segment, long offset, int length) {
+    }
+
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_SUFFIX = ".ndjson";
+
+    private static final Object STOP = new Object();
+
+    private final JailPlus plugin;
+    private final File directory;
+    private final Function<T, String> encoder;
+    private final long maxSegmentBytes;
+    private final long maxSegmentAgeMillis;
+    private final WriteListener<T> listener;
+
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private Thread appender;
+
+    // Appender thread state
+    private final List<Written<T>> written = new ArrayList<>();
+    private File segment;
+    private OutputStream out;
+    private long segmentSize;
+    private long segmentStart;
+
+    public AuditLogWriter(JailPlus plugin, File directory, Function<T, String> encoder,
+                          long maxSegmentBytes, long maxSegmentAgeMillis, WriteListener<T> listener) {
+        this.plugin = plugin;
+        this.directory = directory;
+        this.encoder = encoder;
+        this.maxSegmentBytes = Math.max(1024L, maxSegmentBytes);
+        this.maxSegmentAgeMillis = maxSegmentAgeMillis > 0 ? maxSegmentAgeMillis : Long.MAX_VALUE;
+        this.listener = listener;
+    }
+
+    public synchronized void start() {
+        start(null);
+    }
+
+    /**
+     * Starts the appender thread. {@code startup} runs on that thread before any queued record,
+     * the records it returns are written first.
+     */
+    public synchronized void start(Supplier<List<T>> startup) {
+        if (appender != null) {
+            return;
+        }
+
+        if (!directory.exists() && !directory.mkdirs()) {
+            plugin.getLogger().severe("Could not create log directory: " + directory);
+        }
+
+        appender = new Thread(() -> run(startup), "JailPlus-AuditLog");
+        appender.setDaemon(true);
+        appender.start();
+    }
+
+    public void append(T record) {
+        queue.add(record);
+    }
+
+    /**
+     * Writes everything still queued, closes the open segment and stops the appender thread.
+     */
+    public synchronized void stop() {
+        if (appender == null) {
+            return;
+        }
+
+        queue.add(STOP);
+        try {
+            appender.join(10_000L);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        appender = null;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Returns all segment files, oldest first.
+     */
+    public List<File> listSegments() {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        if (files == null) {
+            return new ArrayList<>();
+        }
+
+        List<File> segments = new ArrayList<>(Arrays.asList(files));
+        segments.sort(Comparator.comparingLong(AuditLogWriter::segmentStart));
+        return segments;
+    }
+
+    static long segmentStart(File segment) {
+        String name = segment.getName();
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void run(Supplier<List<T>> startup) {
+        try {
+            if (startup != null) {
+                runStartup(startup);
+            }
+
+            while (true) {
+                Object next = queue.take();
+                boolean stopping = next == STOP;
+
+                if (!stopping) {
+                    write((T) next);
+                }
+
+                // Drain whatever queued up meanwhile and flush once per batch
+                while ((next = queue.poll()) != null) {
+                    if (next == STOP) {
+                        stopping = true;
+                    } else {
+                        write((T) next);
+                    }
+                }
+
+                flushSegment();
+                notifyWritten();
+
+                if (stopping) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeSegment();
+        }
+    }
+
+    private void runStartup(Supplier<List<T>> startup) {
+        List<T> records;
+        try {
+            records = startup.get();
+        } catch (RuntimeException e) {
+            plugin.getLogger().log(Level.SEVERE, "Error while loading the audit log", e);
+            return;
+        }
+
+        for (T record : records) {
+            write(record);
+        }
+        flushSegment();
+        notifyWritten();
+    }
+
+    private void write(T record) {
+        String line;
+        try {
+            line = encoder.apply(record);
+        } catch (RuntimeException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not encode log record", e);
+            return;
+        }
+
+        try {
+            long now = System.currentTimeMillis();
+            if (out == null || segmentSize >= maxSegmentBytes || now - segmentStart >= maxSegmentAgeMillis) {
+                rotate(now);
+            }
+
+            byte[] bytes = (line + '\n').getBytes(StandardCharsets.UTF_8);
+            out.write(bytes);
+            if (listener != null) {
+                written.add(new Written<>(record, segment, segmentSize, bytes.length));
+            }
+            segmentSize += bytes.length;
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not write audit log", e);
+            closeSegment();
+        }
+    }
+
+    private void flushSegment() {
+        if (out == null) {
+            return;
+        }
+
+        try {
+            out.flush();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Could not flush audit log", e);
+            written.clear();
+            closeSegment();
+        }
+    }
+
+    private void notifyWritten() {
+        for (Written<T> entry : written) {
+            try {
+                listener.onWritten(entry.record(), entry.segment(), entry.offset(), entry.length());
+            } catch (RuntimeException e) {
+                plugin.getLogger().log(Level.WARNING, "Error in audit log listener", e);
+            }
+        }
+        written.clear();
+    }
+
+    private void rotate(long now) throws IOException {
+        File next = null;
+
+        if (out == null) {
+            // Keep appending to the newest segment from a previous run while it is within limits
+            List<File> segments = listSegments();
+            if (!segments.isEmpty()) {
+                File latest = segments.get(segments.size() - 1);
+                long start = segmentStart(latest);
+                if (latest.length() < maxSegmentBytes && now - start < maxSegmentAgeMillis && endsWithNewline(latest)) {
+                    next = latest;
+                    segmentStart = start;
+                }
+            }
+        } else {
+            flushSegment();
+            notifyWritten();
+            closeSegment();
+        }
+
+        if (next == null) {
+            long start = now;
+            next = new File(directory, SEGMENT_PREFIX + start + SEGMENT_SUFFIX);
+            while (next.exists()) {
+                next = new File(directory, SEGMENT_PREFIX + (++start) + SEGMENT_SUFFIX);
+            }
+            segmentStart = start;
+        }
+
+        segment = next;
+        segmentSize = next.length();
+        out = new BufferedOutputStream(new FileOutputStream(next, true), 16 * 1024);
+    }
+
+    // A torn last line (crash mid-write) must not be glued to the next record
+    private static boolean endsWithNewline(File file) {
+        long length = file.length();
+        if (length == 0) {
+            return true;
+        }
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(length - 1);
+            return raf.read() == '\n';
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void closeSegment() {
+        if (out == null) {
+            return;
+        }
+
+        try {
+            out.close();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Could not close audit log segment", e);
+        }
+        out = null;
+        segment = null;
+    }
+}
@@ -0,0 +1,54 @@
+package org.misqzy.jailPlus.storage;
+
+import org.misqzy.jailPlus.data.JailData;
+import org.misqzy.jailPlus.data.PlayerJailData;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface JailStorage {
+
+    void init() throws Exception;
+
+    Collection<JailData> loadJails();
+
+    Collection<PlayerJailData> loadPlayers();
+
+    void saveJail(JailData jail);
+
+    void deleteJail(String jailName);
+
+    void savePlayer(PlayerJailData jailData);
+
+    void deletePlayer(UUID playerUuid);
+
+    void flush();
+
+    void close();
+
+    String getName();
+
+    /**
+     * Copies all jails and prisoners of {@code source} into this storage and flushes,
+     * but only while this storage is still empty.
+     *
+     * @return number of jails and prisoners imported, 0 if nothing was copied
+     */
+    default int importFrom(JailStorage source) {
+        if (!loadJails().isEmpty() || !loadPlayers().isEmpty()) {
+            return 0;
+        }
+
+        Collection<JailData> jails = source.loadJails();
+        Collection<PlayerJailData> players = source.loadPlayers();
+        if (jails.isEmpty() && players.isEmpty()) {
+            return 0;
+        }
+
+        jails.forEach(this::saveJail);
+        players.forEach(this::savePlayer);
+        flush();
+
+        return jails.size() + players.size();
+    }
+}
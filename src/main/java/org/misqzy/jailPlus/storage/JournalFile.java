@@ -0,0 +1,69 @@
+package org.misqzy.jailPlus.storage;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Append-only line journal kept next to a compacted data file.
+ * An append only costs the new lines; the owner folds the journal into the data file
+ * with {@link #compact} once it has grown past its threshold.
+ * Lines must not contain line breaks, escaping is up to the owner.
+ */
+public class JournalFile {
+
+    private final File file;
+    private int lineCount = 0;
+
+    public JournalFile(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads all lines written since the last compaction, an incomplete last line included.
+     */
+    public synchronized List<String> readLines() throws IOException {
+        if (!file.exists()) {
+            lineCount = 0;
+            return List.of();
+        }
+
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        lineCount = lines.size();
+        return lines;
+    }
+
+    public synchronized void append(Collection<String> lines) throws IOException {
+        if (lines.isEmpty()) {
+            return;
+        }
+
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        }
+        lineCount += lines.size();
+    }
+
+    /**
+     * Atomically replaces {@code dataFile} with {@code data}, which must include every journaled change,
+     * then empties the journal. A crash in between only replays changes that are already in the data file.
+     */
+    public synchronized void compact(File dataFile, String data) throws IOException {
+        WriteBehindFile.writeAtomically(dataFile, data);
+        Files.deleteIfExists(file.toPath());
+        lineCount = 0;
+    }
+
+    public synchronized int getLineCount() {
+        return lineCount;
+    }
+}
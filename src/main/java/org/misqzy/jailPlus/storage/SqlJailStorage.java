@@ -0,0 +1,549 @@
+package org.misqzy.jailPlus.storage;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+import org.misqzy.jailPlus.JailPlus;
+import org.misqzy.jailPlus.data.JailData;
+import org.misqzy.jailPlus.data.JailRegion;
+import org.misqzy.jailPlus.data.PlayerJailData;
+import org.misqzy.jailPlus.managers.ConfigManager;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+
+/**
+ * JDBC storage backed by a pooled data source.
+ * SQLite is used in file mode by default, MySQL when configured.
+ * Changes are queued per key and written as one batched transaction per flush,
+ * so a single jail or unjail results in a single row write.
+ * If the batch is rejected it is written row by row: rows failing on connection or transient
+ * errors are queued again, rows the database rejects for good are logged and dropped.
+ */
+public class SqlJailStorage implements JailStorage {
+
+    private final JailPlus plugin;
+    private final ConfigManager configManager;
+    private final boolean mysql;
+    private final String jailsTable;
+    private final String playersTable;
+
+    // Pending changes, a null value marks a delete
+    private final Map<String, PendingJail> pendingJails;
+    private final Map<UUID, PendingPlayer> pendingPlayers;
+    private final Object flushLock = new Object();
+
+    private HikariDataSource dataSource;
+    private BukkitTask flushTask;
+
+    public SqlJailStorage(JailPlus plugin, boolean mysql) {
+        this.plugin = plugin;
+        this.configManager = plugin.getConfigManager();
+        this.mysql = mysql;
+        this.jailsTable = configManager.getMySQLTablePrefix() + "jails";
+        this.playersTable = configManager.getMySQLTablePrefix() + "prisoners";
+        this.pendingJails = new ConcurrentHashMap<>();
+        this.pendingPlayers = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void init() throws SQLException {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("JailPlus-" + getName());
+
+        if (mysql) {
+            config.setJdbcUrl("jdbc:mysql://" + configManager.getMySQLHost() + ":" + configManager.getMySQLPort()
+                    + "/" + configManager.getMySQLDatabase());
+            config.setUsername(configManager.getMySQLUsername());
+            config.setPassword(configManager.getMySQLPassword());
+            config.setMaximumPoolSize(configManager.getStoragePoolSize());
+            config.addDataSourceProperty("cachePrepStmts", "true");
+            config.addDataSourceProperty("rewriteBatchedStatements", "true");
+        } else {
+            File dataFolder = plugin.getDataFolder();
+            if (!dataFolder.exists()) {
+                dataFolder.mkdirs();
+            }
+
+            File databaseFile = new File(dataFolder, configManager.getSQLiteFile());
+            config.setDriverClassName("org.sqlite.JDBC");
+            config.setJdbcUrl("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+            // SQLite allows a single writer, readers share the WAL
+            config.setMaximumPoolSize(Math.max(1, Math.min(2, configManager.getStoragePoolSize())));
+            config.setConnectionInitSql("PRAGMA journal_mode=WAL");
+        }
+
+        dataSource = new HikariDataSource(config);
+        createTables();
+
+        long interval = Math.max(1L, configManager.getStorageFlushInterval());
+        flushTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, this::flush, interval, interval);
+    }
+
+    private void createTables() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS " + jailsTable + " ("
+                    + "name VARCHAR(64) NOT NULL PRIMARY KEY,"
+                    + "world VARCHAR(64) NOT NULL,"
+                    + "x DOUBLE NOT NULL,"
+                    + "y DOUBLE NOT NULL,"
+                    + "z DOUBLE NOT NULL,"
+                    + "yaw DOUBLE NOT NULL,"
+                    + "pitch DOUBLE NOT NULL,"
+                    + "region_min_x INT,"
+                    + "region_min_y INT,"
+                    + "region_min_z INT,"
+                    + "region_max_x INT,"
+                    + "region_max_y INT,"
+                    + "region_max_z INT)");
+
+            addMissingColumns(connection, jailsTable, "region_min_x INT", "region_min_y INT", "region_min_z INT",
+                    "region_max_x INT", "region_max_y INT", "region_max_z INT");
+
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS " + playersTable + " ("
+                    + "uuid VARCHAR(36) NOT NULL PRIMARY KEY,"
+                    + "name VARCHAR(36),"
+                    + "jail VARCHAR(64) NOT NULL,"
+                    + "jail_time BIGINT NOT NULL,"
+                    + "start_time BIGINT NOT NULL,"
+                    + "reason TEXT,"
+                    + "jailed_by VARCHAR(64),"
+                    + "prev_world VARCHAR(64),"
+                    + "prev_x DOUBLE,"
+                    + "prev_y DOUBLE,"
+                    + "prev_z DOUBLE,"
+                    + "prev_yaw DOUBLE,"
+                    + "prev_pitch DOUBLE,"
+                    + "pending INT NOT NULL DEFAULT 0,"
+                    + "start_millis BIGINT)");
+
+            addMissingColumns(connection, playersTable, "pending INT NOT NULL DEFAULT 0");
+            addMissingColumns(connection, playersTable, "start_millis BIGINT");
+            widenNameColumn(connection);
+        }
+    }
+
+    // Tables created by older versions lack columns added since, probed by the first one
+    private void addMissingColumns(Connection connection, String table, String... columns) throws SQLException {
+        String probeColumn = columns[0].substring(0, columns[0].indexOf(' '));
+        try (Statement probe = connection.createStatement()) {
+            probe.executeQuery("SELECT " + probeColumn + " FROM " + table + " WHERE 1 = 0").close();
+            return;
+        } catch (SQLException ignored) {
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            for (String column : columns) {
+                statement.executeUpdate("ALTER TABLE " + table + " ADD COLUMN " + column);
+            }
+        }
+        plugin.getLogger().info("Added " + columns.length + " new columns to " + table);
+    }
+
+    // The first schema had name VARCHAR(16), SQLite does not enforce lengths and has no MODIFY
+    private void widenNameColumn(Connection connection) throws SQLException {
+        if (!mysql) {
+            return;
+        }
+
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT CHARACTER_MAXIMUM_LENGTH FROM INFORMATION_SCHEMA.COLUMNS "
+                        + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = 'name'")) {
+            statement.setString(1, playersTable);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (!rs.next() || rs.getLong(1) >= 36) {
+                    return;
+                }
+            }
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.executeUpdate("ALTER TABLE " + playersTable + " MODIFY COLUMN name VARCHAR(36)");
+        }
+        plugin.getLogger().info("Widened the name column of " + playersTable);
+    }
+
+    @Override
+    public Collection<JailData> loadJails() {
+        List<JailData> result = new ArrayList<>();
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT name, world, x, y, z, yaw, pitch, region_min_x, region_min_y, region_min_z, "
+                             + "region_max_x, region_max_y, region_max_z FROM " + jailsTable);
+             ResultSet rs = statement.executeQuery()) {
+
+            while (rs.next()) {
+                JailData jail = new JailData(
+                        rs.getString("name"),
+                        rs.getString("world"),
+                        rs.getDouble("x"),
+                        rs.getDouble("y"),
+                        rs.getDouble("z"),
+                        rs.getFloat("yaw"),
+                        rs.getFloat("pitch")
+                );
+
+                int minX = rs.getInt("region_min_x");
+                if (!rs.wasNull()) {
+                    jail.setRegion(new JailRegion(minX,
+                            rs.getInt("region_min_y"),
+                            rs.getInt("region_min_z"),
+                            rs.getInt("region_max_x"),
+                            rs.getInt("region_max_y"),
+                            rs.getInt("region_max_z")));
+                }
+
+                result.add(jail);
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Error loading jails from database", e);
+        }
+
+        return result;
+    }
+
+    @Override
+    public Collection<PlayerJailData> loadPlayers() {
+        List<PlayerJailData> result = new ArrayList<>();
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "SELECT uuid, name, jail, jail_time, start_time, reason, jailed_by, "
+                             + "prev_world, prev_x, prev_y, prev_z, prev_yaw, prev_pitch, pending, start_millis FROM " + playersTable);
+             ResultSet rs = statement.executeQuery()) {
+
+            while (rs.next()) {
+                String uuidString = rs.getString("uuid");
+                try {
+                    PlayerJailData jailData = new PlayerJailData(
+                            UUID.fromString(uuidString),
+                            rs.getString("name"),
+                            rs.getString("jail"),
+                            rs.getLong("jail_time"),
+                            rs.getString("reason"),
+                            rs.getString("jailed_by")
+                    );
+                    jailData.setStartTime(rs.getLong("start_time"));
+                    long startMillis = rs.getLong("start_millis");
+                    if (!rs.wasNull()) {
+                        jailData.setStartMillis(startMillis);
+                    }
+                    jailData.setPending(rs.getInt("pending") != 0);
+
+                    String prevWorld = rs.getString("prev_world");
+                    if (prevWorld != null) {
+                        jailData.setPreviousLocation(prevWorld,
+                                rs.getDouble("prev_x"),
+                                rs.getDouble("prev_y"),
+                                rs.getDouble("prev_z"),
+                                rs.getFloat("prev_yaw"),
+                                rs.getFloat("prev_pitch"));
+                    }
+
+                    result.add(jailData);
+                } catch (IllegalArgumentException e) {
+                    plugin.getLogger().warning("Invalid UUID in players data: " + uuidString);
+                }
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Error loading prisoners from database", e);
+        }
+
+        return result;
+    }
+
+    @Override
+    public void saveJail(JailData jail) {
+        String key = jail.getName().toLowerCase();
+        pendingJails.put(key, new PendingJail(key, new JailData(jail)));
+    }
+
+    @Override
+    public void deleteJail(String jailName) {
+        String key = jailName.toLowerCase();
+        pendingJails.put(key, new PendingJail(key, null));
+    }
+
+    @Override
+    public void savePlayer(PlayerJailData jailData) {
+        pendingPlayers.put(jailData.getPlayerUuid(), new PendingPlayer(jailData.getPlayerUuid(), new PlayerJailData(jailData)));
+    }
+
+    @Override
+    public void deletePlayer(UUID playerUuid) {
+        pendingPlayers.put(playerUuid, new PendingPlayer(playerUuid, null));
+    }
+
+    @Override
+    public void flush() {
+        synchronized (flushLock) {
+            if (dataSource == null || (pendingJails.isEmpty() && pendingPlayers.isEmpty())) {
+                return;
+            }
+
+            List<PendingJail> jails = drain(pendingJails);
+            List<PendingPlayer> players = drain(pendingPlayers);
+
+            try (Connection connection = dataSource.getConnection()) {
+                try {
+                    writeBatch(connection, jails, players);
+                } catch (SQLException e) {
+                    if (isTransient(e)) {
+                        throw e;
+                    }
+                    plugin.getLogger().warning("Batch write to database failed, writing row by row: " + e.getMessage());
+                    writeRows(connection, jails, players);
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().log(Level.SEVERE, "Error writing jail data to database", e);
+                requeue(jails, players);
+            }
+        }
+    }
+
+    private void writeBatch(Connection connection, List<PendingJail> jails, List<PendingPlayer> players)
+            throws SQLException {
+        connection.setAutoCommit(false);
+        try {
+            writeJails(connection, jails);
+            writePlayers(connection, players);
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    // Each row commits on its own, so a rejected row does not take the others with it
+    private void writeRows(Connection connection, List<PendingJail> jails, List<PendingPlayer> players)
+            throws SQLException {
+        for (int i = 0; i < jails.size(); i++) {
+            PendingJail pending = jails.get(i);
+            try {
+                writeJails(connection, List.of(pending));
+            } catch (SQLException e) {
+                if (isTransient(e)) {
+                    requeue(jails.subList(i, jails.size()), players);
+                    return;
+                }
+                plugin.getLogger().log(Level.SEVERE, "Dropping change of jail '" + pending.name()
+                        + "' rejected by the database", e);
+            }
+        }
+
+        for (int i = 0; i < players.size(); i++) {
+            PendingPlayer pending = players.get(i);
+            try {
+                writePlayers(connection, List.of(pending));
+            } catch (SQLException e) {
+                if (isTransient(e)) {
+                    requeue(List.of(), players.subList(i, players.size()));
+                    return;
+                }
+                plugin.getLogger().log(Level.SEVERE, "Dropping change of prisoner " + pending.uuid()
+                        + " rejected by the database", e);
+            }
+        }
+    }
+
+    // Connection loss, timeouts, deadlocks and locked SQLite files are worth another try, anything else is not
+    private boolean isTransient(SQLException e) {
+        if (e instanceof SQLTransientException || e instanceof SQLRecoverableException) {
+            return true;
+        }
+
+        String state = e.getSQLState();
+        if (state != null) {
+            return state.startsWith("08") || state.startsWith("40") || state.startsWith("HYT");
+        }
+
+        // The SQLite driver sets no SQLState, BUSY (5) and LOCKED (6) are its retryable result codes
+        int code = e.getErrorCode() & 0xff;
+        return !mysql && (code == 5 || code == 6);
+    }
+
+    private void writeJails(Connection connection, List<PendingJail> jails) throws SQLException {
+        if (jails.isEmpty()) {
+            return;
+        }
+
+        try (PreparedStatement upsert = connection.prepareStatement(
+                "REPLACE INTO " + jailsTable + " (name, world, x, y, z, yaw, pitch, region_min_x, region_min_y, region_min_z, "
+                        + "region_max_x, region_max_y, region_max_z) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement delete = connection.prepareStatement(
+                     "DELETE FROM " + jailsTable + " WHERE name = ?")) {
+
+            boolean hasUpserts = false;
+            boolean hasDeletes = false;
+
+            for (PendingJail pending : jails) {
+                JailData jail = pending.jail();
+                if (jail == null) {
+                    delete.setString(1, pending.name());
+                    delete.addBatch();
+                    hasDeletes = true;
+                    continue;
+                }
+
+                upsert.setString(1, pending.name());
+                upsert.setString(2, jail.getWorldName());
+                upsert.setDouble(3, jail.getX());
+                upsert.setDouble(4, jail.getY());
+                upsert.setDouble(5, jail.getZ());
+                upsert.setDouble(6, jail.getYaw());
+                upsert.setDouble(7, jail.getPitch());
+
+                JailRegion region = jail.getRegion();
+                if (region != null) {
+                    upsert.setInt(8, region.getMinX());
+                    upsert.setInt(9, region.getMinY());
+                    upsert.setInt(10, region.getMinZ());
+                    upsert.setInt(11, region.getMaxX());
+                    upsert.setInt(12, region.getMaxY());
+                    upsert.setInt(13, region.getMaxZ());
+                } else {
+                    for (int i = 8; i <= 13; i++) {
+                        upsert.setNull(i, Types.INTEGER);
+                    }
+                }
+                upsert.addBatch();
+                hasUpserts = true;
+            }
+
+            if (hasUpserts) {
+                upsert.executeBatch();
+            }
+            if (hasDeletes) {
+                delete.executeBatch();
+            }
+        }
+    }
+
+    private void writePlayers(Connection connection, List<PendingPlayer> players) throws SQLException {
+        if (players.isEmpty()) {
+            return;
+        }
+
+        try (PreparedStatement upsert = connection.prepareStatement(
+                "REPLACE INTO " + playersTable + " (uuid, name, jail, jail_time, start_time, reason, jailed_by, "
+                        + "prev_world, prev_x, prev_y, prev_z, prev_yaw, prev_pitch, pending, start_millis) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement delete = connection.prepareStatement(
+                     "DELETE FROM " + playersTable + " WHERE uuid = ?")) {
+
+            boolean hasUpserts = false;
+            boolean hasDeletes = false;
+
+            for (PendingPlayer pending : players) {
+                PlayerJailData jailData = pending.data();
+                if (jailData == null) {
+                    delete.setString(1, pending.uuid().toString());
+                    delete.addBatch();
+                    hasDeletes = true;
+                    continue;
+                }
+
+                upsert.setString(1, pending.uuid().toString());
+                upsert.setString(2, jailData.getPlayerName());
+                upsert.setString(3, jailData.getJailName());
+                upsert.setLong(4, jailData.getJailTime());
+                upsert.setLong(5, jailData.getStartTime());
+                upsert.setString(6, jailData.getReason());
+                upsert.setString(7, jailData.getJailedBy());
+
+                if (jailData.getPreviousWorldName() != null) {
+                    upsert.setString(8, jailData.getPreviousWorldName());
+                    upsert.setDouble(9, jailData.getPreviousX());
+                    upsert.setDouble(10, jailData.getPreviousY());
+                    upsert.setDouble(11, jailData.getPreviousZ());
+                    upsert.setDouble(12, jailData.getPreviousYaw());
+                    upsert.setDouble(13, jailData.getPreviousPitch());
+                } else {
+                    upsert.setNull(8, Types.VARCHAR);
+                    for (int i = 9; i <= 13; i++) {
+                        upsert.setNull(i, Types.DOUBLE);
+                    }
+                }
+                upsert.setInt(14, jailData.isPending() ? 1 : 0);
+                upsert.setLong(15, jailData.getStartMillis());
+
+                upsert.addBatch();
+                hasUpserts = true;
+            }
+
+            if (hasUpserts) {
+                upsert.executeBatch();
+            }
+            if (hasDeletes) {
+                delete.executeBatch();
+            }
+        }
+    }
+
+    private static <K, V> List<V> drain(Map<K, V> pending) {
+        List<V> drained = new ArrayList<>(pending.size());
+        for (K key : pending.keySet()) {
+            V value = pending.remove(key);
+            if (value != null) {
+                drained.add(value);
+            }
+        }
+        return drained;
+    }
+
+    private void requeue(List<PendingJail> jails, List<PendingPlayer> players) {
+        // Newer changes queued meanwhile take precedence
+        for (PendingJail pending : jails) {
+            pendingJails.putIfAbsent(pending.name(), pending);
+        }
+        for (PendingPlayer pending : players) {
+            pendingPlayers.putIfAbsent(pending.uuid(), pending);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+
+        synchronized (flushLock) {
+            flush();
+
+            if (dataSource != null) {
+                dataSource.close();
+                dataSource = null;
+            }
+        }
+    }
+
+    @Override
+    public String getName() {
+        return mysql ? "MYSQL" : "SQLITE";
+    }
+
+    private record PendingJail(String name, JailData jail) {}
+
+    private record PendingPlayer(UUID uuid, PlayerJailData data) {}
+}
@@ -0,0 +1,128 @@
+package org.misqzy.jailPlus.storage;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+import org.misqzy.jailPlus.JailPlus;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Coalescing write-behind for a single data file.
+ * Mutations only mark the file dirty; a timer takes a snapshot on the main thread
+ * at most once per interval and encodes + writes it on an async thread.
+ * Files are replaced atomically through a temp file and a rename.
+ */
+public class WriteBehindFile<T> {
+
+    private final JailPlus plugin;
+    private final File file;
+    private final Supplier<T> snapshotter;
+    private final Function<T, String> encoder;
+
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private final AtomicLong generation = new AtomicLong();
+    private final Object writeLock = new Object();
+    private long writtenGeneration = 0;
+
+    private BukkitTask flushTask;
+
+    public WriteBehindFile(JailPlus plugin, File file, Supplier<T> snapshotter, Function<T, String> encoder) {
+        this.plugin = plugin;
+        this.file = file;
+        this.snapshotter = snapshotter;
+        this.encoder = encoder;
+    }
+
+    public void start(long intervalTicks) {
+        stop();
+
+        long interval = Math.max(1L, intervalTicks);
+        flushTask = Bukkit.getScheduler().runTaskTimer(plugin, this::scheduleWrite, interval, interval);
+    }
+
+    public void stop() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+    }
+
+    public void markDirty() {
+        dirty.set(true);
+    }
+
+    public boolean isDirty() {
+        return dirty.get();
+    }
+
+    private void scheduleWrite() {
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+
+        T snapshot = snapshotter.get();
+        long snapshotGeneration = generation.incrementAndGet();
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> write(snapshot, snapshotGeneration));
+    }
+
+    /**
+     * Writes the current state synchronously if anything is dirty or still queued.
+     * Must be called from the main thread.
+     */
+    public void flush() {
+        boolean pending;
+        synchronized (writeLock) {
+            pending = generation.get() > writtenGeneration;
+        }
+
+        if (dirty.getAndSet(false) || pending) {
+            write(snapshotter.get(), generation.incrementAndGet());
+        }
+    }
+
+    public void close() {
+        stop();
+        flush();
+    }
+
+    private void write(T snapshot, long snapshotGeneration) {
+        synchronized (writeLock) {
+            // A newer snapshot already reached the disk
+            if (snapshotGeneration <= writtenGeneration) {
+                return;
+            }
+
+            try {
+                writeAtomically(file, encoder.apply(snapshot));
+                writtenGeneration = snapshotGeneration;
+            } catch (Exception e) {
+                dirty.set(true);
+                plugin.getLogger().log(Level.SEVERE, "Error saving " + file.getName(), e);
+            }
+        }
+    }
+
+    static void writeAtomically(File file, String data) throws IOException {
+        Path target = file.toPath();
+        Path temp = target.resolveSibling(file.getName() + ".tmp");
+
+        Files.writeString(temp, data, StandardCharsets.UTF_8);
+
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
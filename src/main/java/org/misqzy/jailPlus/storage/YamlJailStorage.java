@@ -0,0 +1,261 @@
+package org.misqzy.jailPlus.storage;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.misqzy.jailPlus.JailPlus;
+import org.misqzy.jailPlus.data.JailData;
+import org.misqzy.jailPlus.data.JailRegion;
+import org.misqzy.jailPlus.data.PlayerJailData;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class YamlJailStorage implements JailStorage {
+
+    private final JailPlus plugin;
+    private final File jailsFile;
+    private final File playersFile;
+
+    // Detached copies of the stored state, so snapshots never touch live objects
+    private final Map<String, JailData> jails;
+    private final Map<UUID, PlayerJailData> players;
+
+    private WriteBehindFile<List<JailData>> jailsWriter;
+    private WriteBehindFile<List<PlayerJailData>> playersWriter;
+
+    public YamlJailStorage(JailPlus plugin) {
+        this.plugin = plugin;
+        this.jailsFile = new File(plugin.getDataFolder(), "jails.yml");
+        this.playersFile = new File(plugin.getDataFolder(), "players.yml");
+        this.jails = new ConcurrentHashMap<>();
+        this.players = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public void init() throws IOException {
+        File dataFolder = plugin.getDataFolder();
+        if (!dataFolder.exists()) {
+            dataFolder.mkdirs();
+        }
+
+        if (!jailsFile.exists()) {
+            jailsFile.createNewFile();
+        }
+
+        if (!playersFile.exists()) {
+            playersFile.createNewFile();
+        }
+
+        long flushInterval = plugin.getConfigManager().getStorageFlushInterval();
+
+        jailsWriter = new WriteBehindFile<>(plugin, jailsFile, () -> new ArrayList<>(jails.values()), this::encodeJails);
+        jailsWriter.start(flushInterval);
+
+        playersWriter = new WriteBehindFile<>(plugin, playersFile, () -> new ArrayList<>(players.values()), this::encodePlayers);
+        playersWriter.start(flushInterval);
+    }
+
+    @Override
+    public Collection<JailData> loadJails() {
+        FileConfiguration jailsConfig = YamlConfiguration.loadConfiguration(jailsFile);
+        List<JailData> result = new ArrayList<>();
+        jails.clear();
+
+        ConfigurationSection section = jailsConfig.getConfigurationSection("jails");
+        if (section == null) {
+            return result;
+        }
+
+        for (String jailName : section.getKeys(false)) {
+            String path = "jails." + jailName;
+
+            String worldName = jailsConfig.getString(path + ".world");
+            double x = jailsConfig.getDouble(path + ".x");
+            double y = jailsConfig.getDouble(path + ".y");
+            double z = jailsConfig.getDouble(path + ".z");
+            float yaw = (float) jailsConfig.getDouble(path + ".yaw");
+            float pitch = (float) jailsConfig.getDouble(path + ".pitch");
+
+            JailData jail = new JailData(jailName, worldName, x, y, z, yaw, pitch);
+
+            String regionPath = path + ".region";
+            if (jailsConfig.isConfigurationSection(regionPath)) {
+                jail.setRegion(new JailRegion(
+                        jailsConfig.getInt(regionPath + ".min-x"),
+                        jailsConfig.getInt(regionPath + ".min-y"),
+                        jailsConfig.getInt(regionPath + ".min-z"),
+                        jailsConfig.getInt(regionPath + ".max-x"),
+                        jailsConfig.getInt(regionPath + ".max-y"),
+                        jailsConfig.getInt(regionPath + ".max-z")));
+            }
+
+            result.add(jail);
+            jails.put(jailName.toLowerCase(), new JailData(jail));
+        }
+
+        return result;
+    }
+
+    @Override
+    public Collection<PlayerJailData> loadPlayers() {
+        FileConfiguration playersConfig = YamlConfiguration.loadConfiguration(playersFile);
+        List<PlayerJailData> result = new ArrayList<>();
+        players.clear();
+
+        ConfigurationSection section = playersConfig.getConfigurationSection("players");
+        if (section == null) {
+            return result;
+        }
+
+        for (String uuidString : section.getKeys(false)) {
+            try {
+                String path = "players." + uuidString;
+
+                UUID uuid = UUID.fromString(uuidString);
+                String playerName = playersConfig.getString(path + ".name");
+                String jailName = playersConfig.getString(path + ".jail");
+                long jailTime = playersConfig.getLong(path + ".jail-time");
+                long startTime = playersConfig.getLong(path + ".start-time");
+                String reason = playersConfig.getString(path + ".reason", "No reason");
+                String jailedBy = playersConfig.getString(path + ".jailed-by", "Console");
+
+                PlayerJailData jailData = new PlayerJailData(uuid, playerName, jailName, jailTime, reason, jailedBy);
+                jailData.setStartTime(startTime);
+                if (playersConfig.contains(path + ".start-time-millis")) {
+                    jailData.setStartMillis(playersConfig.getLong(path + ".start-time-millis"));
+                }
+                jailData.setPending(playersConfig.getBoolean(path + ".pending", false));
+
+                String prevPath = path + ".previous-location";
+                String worldName = playersConfig.getString(prevPath + ".world");
+                if (worldName != null) {
+                    jailData.setPreviousLocation(worldName,
+                            playersConfig.getDouble(prevPath + ".x"),
+                            playersConfig.getDouble(prevPath + ".y"),
+                            playersConfig.getDouble(prevPath + ".z"),
+                            (float) playersConfig.getDouble(prevPath + ".yaw"),
+                            (float) playersConfig.getDouble(prevPath + ".pitch"));
+                }
+
+                result.add(jailData);
+                players.put(uuid, new PlayerJailData(jailData));
+
+            } catch (IllegalArgumentException e) {
+                plugin.getLogger().warning("Invalid UUID in players data: " + uuidString);
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public void saveJail(JailData jail) {
+        jails.put(jail.getName().toLowerCase(), new JailData(jail));
+        jailsWriter.markDirty();
+    }
+
+    @Override
+    public void deleteJail(String jailName) {
+        if (jails.remove(jailName.toLowerCase()) != null) {
+            jailsWriter.markDirty();
+        }
+    }
+
+    @Override
+    public void savePlayer(PlayerJailData jailData) {
+        players.put(jailData.getPlayerUuid(), new PlayerJailData(jailData));
+        playersWriter.markDirty();
+    }
+
+    @Override
+    public void deletePlayer(UUID playerUuid) {
+        if (players.remove(playerUuid) != null) {
+            playersWriter.markDirty();
+        }
+    }
+
+    @Override
+    public void flush() {
+        jailsWriter.flush();
+        playersWriter.flush();
+    }
+
+    @Override
+    public void close() {
+        if (jailsWriter != null) {
+            jailsWriter.close();
+        }
+        if (playersWriter != null) {
+            playersWriter.close();
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "YAML";
+    }
+
+    private String encodeJails(List<JailData> snapshot) {
+        YamlConfiguration config = new YamlConfiguration();
+
+        for (JailData jail : snapshot) {
+            String path = "jails." + jail.getName();
+            config.set(path + ".world", jail.getWorldName());
+            config.set(path + ".x", jail.getX());
+            config.set(path + ".y", jail.getY());
+            config.set(path + ".z", jail.getZ());
+            config.set(path + ".yaw", jail.getYaw());
+            config.set(path + ".pitch", jail.getPitch());
+
+            JailRegion region = jail.getRegion();
+            if (region != null) {
+                String regionPath = path + ".region";
+                config.set(regionPath + ".min-x", region.getMinX());
+                config.set(regionPath + ".min-y", region.getMinY());
+                config.set(regionPath + ".min-z", region.getMinZ());
+                config.set(regionPath + ".max-x", region.getMaxX());
+                config.set(regionPath + ".max-y", region.getMaxY());
+                config.set(regionPath + ".max-z", region.getMaxZ());
+            }
+        }
+
+        return config.saveToString();
+    }
+
+    private String encodePlayers(List<PlayerJailData> snapshot) {
+        YamlConfiguration config = new YamlConfiguration();
+
+        for (PlayerJailData jailData : snapshot) {
+            String path = "players." + jailData.getPlayerUuid().toString();
+            config.set(path + ".name", jailData.getPlayerName());
+            config.set(path + ".jail", jailData.getJailName());
+            config.set(path + ".jail-time", jailData.getJailTime());
+            config.set(path + ".start-time", jailData.getStartTime());
+            config.set(path + ".start-time-millis", jailData.getStartMillis());
+            config.set(path + ".reason", jailData.getReason());
+            config.set(path + ".jailed-by", jailData.getJailedBy());
+            if (jailData.isPending()) {
+                config.set(path + ".pending", true);
+            }
+
+            if (jailData.getPreviousWorldName() != null) {
+                String prevPath = path + ".previous-location";
+                config.set(prevPath + ".world", jailData.getPreviousWorldName());
+                config.set(prevPath + ".x", jailData.getPreviousX());
+                config.set(prevPath + ".y", jailData.getPreviousY());
+                config.set(prevPath + ".z", jailData.getPreviousZ());
+                config.set(prevPath + ".yaw", jailData.getPreviousYaw());
+                config.set(prevPath + ".pitch", jailData.getPreviousPitch());
+            }
+        }
+
+        return config.saveToString();
+    }
+}
@@ -0,0 +1,84 @@
+package org.misqzy.jailPlus.utils;
+
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandMap;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Commands a prisoner may still use, compiled once from the unblocked-commands list.
+ * Entries match by label, as the namespace of a "plugin:cmd" label,
+ * and through the command map so that aliases and namespaced forms of the same command are allowed too.
+ */
+public final class CommandAllowList {
+
+    private final Set<String> labels;
+    private final Set<Command> commands;
+    private final CommandMap commandMap;
+
+    private CommandAllowList(Set<String> labels, Set<Command> commands, CommandMap commandMap) {
+        this.labels = labels;
+        this.commands = commands;
+        this.commandMap = commandMap;
+    }
+
+    public static CommandAllowList compile(Collection<String> entries, CommandMap commandMap) {
+        Set<String> labels = new HashSet<>();
+        Set<Command> commands = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (String entry : entries) {
+            String label = entry.trim().toLowerCase(Locale.ROOT);
+            if (label.startsWith("/")) {
+                label = label.substring(1);
+            }
+            if (label.isEmpty()) {
+                continue;
+            }
+
+            labels.add(label);
+
+            Command command = commandMap != null ? commandMap.getCommand(label) : null;
+            if (command != null) {
+                commands.add(command);
+            }
+        }
+
+        return new CommandAllowList(labels, commands, commandMap);
+    }
+
+    /**
+     * @param message raw command message including the leading slash
+     */
+    public boolean isAllowed(String message) {
+        int start = message.startsWith("/") ? 1 : 0;
+        int end = message.indexOf(' ', start);
+        if (end < 0) {
+            end = message.length();
+        }
+        if (end == start) {
+            return false;
+        }
+
+        String label = message.substring(start, end).toLowerCase(Locale.ROOT);
+        if (labels.contains(label)) {
+            return true;
+        }
+
+        int colon = label.indexOf(':');
+        if (colon > 0 && labels.contains(label.substring(0, colon))) {
+            return true;
+        }
+
+        if (commands.isEmpty() || commandMap == null) {
+            return false;
+        }
+
+        Command command = commandMap.getCommand(label);
+        return command != null && commands.contains(command);
+    }
+}
@@ -0,0 +1,87 @@
+package org.misqzy.jailPlus.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Min-heap of keys ordered by deadline.
+ * Rescheduling and removal are lazy: stale heap entries are skipped when they surface,
+ * so every operation is O(log n) and polling only touches keys that are actually due.
+ * Not thread-safe, meant to be used from the main thread.
+ */
+public class ExpiryQueue<K> {
+
+    private static final int COMPACT_THRESHOLD = 64;
+
+    private final PriorityQueue<Entry<K>> heap;
+    private final Map<K, Long> deadlines;
+
+    public ExpiryQueue() {
+        this.heap = new PriorityQueue<>();
+        this.deadlines = new HashMap<>();
+    }
+
+    public void schedule(K key, long deadline) {
+        Long previous = deadlines.put(key, deadline);
+        if (previous != null && previous == deadline) {
+            return;
+        }
+
+        heap.add(new Entry<>(key, deadline));
+        compactIfNeeded();
+    }
+
+    public void remove(K key) {
+        if (deadlines.remove(key) != null) {
+            compactIfNeeded();
+        }
+    }
+
+    public boolean contains(K key) {
+        return deadlines.containsKey(key);
+    }
+
+    public void pollExpired(long now, Consumer<K> action) {
+        Entry<K> head;
+        while ((head = heap.peek()) != null && head.deadline() <= now) {
+            heap.poll();
+
+            Long current = deadlines.get(head.key());
+            if (current == null || current != head.deadline()) {
+                continue; // Stale entry, the key was removed or rescheduled
+            }
+
+            deadlines.remove(head.key());
+            action.accept(head.key());
+        }
+    }
+
+    public int size() {
+        return deadlines.size();
+    }
+
+    public void clear() {
+        heap.clear();
+        deadlines.clear();
+    }
+
+    private void compactIfNeeded() {
+        if (heap.size() <= COMPACT_THRESHOLD || heap.size() <= deadlines.size() * 2) {
+            return;
+        }
+
+        heap.clear();
+        for (Map.Entry<K, Long> entry : deadlines.entrySet()) {
+            heap.add(new Entry<>(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private record Entry<K>(K key, long deadline) implements Comparable<Entry<K>> {
+        @Override
+        public int compareTo(Entry<K> other) {
+            return Long.compare(deadline, other.deadline);
+        }
+    }
+}
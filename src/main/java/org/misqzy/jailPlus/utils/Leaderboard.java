@@ -0,0 +1,95 @@
+package org.misqzy.jailPlus.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Bounded top-N ranking. Only works for scores that never decrease:
+ * a player that drops out of the top is re-evaluated on their next update, so no full scan is needed.
+ * Readers get an immutable snapshot with pre-rendered strings.
+ */
+public class Leaderboard {
+
+    public record Entry(UUID uuid, String name, long value) {
+    }
+
+    private record Snapshot(Entry[] entries, String[] names, String[] values) {
+    }
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparingLong(Entry::value).reversed()
+            .thenComparing(Entry::uuid);
+
+    private final int size;
+    private final TreeSet<Entry> top = new TreeSet<>(ORDER);
+    private final Map<UUID, Entry> members = new HashMap<>();
+
+    private volatile Snapshot snapshot = new Snapshot(new Entry[0], new String[0], new String[0]);
+
+    public Leaderboard(int size) {
+        this.size = Math.max(1, size);
+    }
+
+    public synchronized void update(UUID uuid, String name, long value) {
+        Entry entry = new Entry(uuid, name, value);
+        Entry previous = members.get(uuid);
+
+        if (previous != null) {
+            top.remove(previous);
+        } else if (top.size() >= size && ORDER.compare(entry, top.last()) >= 0) {
+            return;
+        }
+
+        top.add(entry);
+        members.put(uuid, entry);
+
+        if (top.size() > size) {
+            members.remove(top.pollLast().uuid());
+        }
+
+        publish();
+    }
+
+    private void publish() {
+        Entry[] entries = top.toArray(new Entry[0]);
+        String[] names = new String[entries.length];
+        String[] values = new String[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            names[i] = entries[i].name() != null ? entries[i].name() : "";
+            values[i] = String.valueOf(entries[i].value());
+        }
+        snapshot = new Snapshot(entries, names, values);
+    }
+
+    /**
+     * Name at the 1-based rank, or an empty string if the rank is not filled.
+     */
+    public String getName(int rank) {
+        String[] names = snapshot.names();
+        return rank >= 1 && rank <= names.length ? names[rank - 1] : "";
+    }
+
+    public String getValue(int rank) {
+        String[] values = snapshot.values();
+        return rank >= 1 && rank <= values.length ? values[rank - 1] : "";
+    }
+
+    public List<Entry> getEntries() {
+        return new ArrayList<>(List.of(snapshot.entries()));
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public synchronized void clear() {
+        top.clear();
+        members.clear();
+        publish();
+    }
+}
@@ -0,0 +1,188 @@
+package org.misqzy.jailPlus.utils;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.Style;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Message compiled once at load: the raw text is split into literal segments and
+ * numbered {i} slots, and the formatted Component is parsed up front and flattened
+ * into styled fixed parts and slots.
+ * Rendering only substitutes slots; messages without slots are served from the cached Component.
+ */
+public final class MessageTemplate {
+
+    private static final Pattern SLOT_PATTERN = Pattern.compile("\\{(\\d+)}");
+
+    private final String raw;
+    private final String[] literals;
+    private final int[] slots;
+    private final Component component;
+    private final Part[] parts;
+
+    private sealed interface Part permits TextPart, SlotPart, ComponentPart {
+    }
+
+    private record TextPart(String text, Style style) implements Part {
+    }
+
+    private record SlotPart(int index, Style style) implements Part {
+    }
+
+    // Non-text component (translatable, keybind...) kept as is
+    private record ComponentPart(Component component) implements Part {
+    }
+
+    private MessageTemplate(String raw, String[] literals, int[] slots, Component component) {
+        this.raw = raw;
+        this.literals = literals;
+        this.slots = slots;
+        this.component = component;
+
+        List<Part> flattened = new ArrayList<>();
+        if (slots.length > 0) {
+            flatten(component, Style.empty(), flattened);
+        }
+        this.parts = flattened.toArray(new Part[0]);
+    }
+
+    // Walks the tree once, resolving inherited styles and locating the slots inside text content
+    private static void flatten(Component node, Style parentStyle, List<Part> parts) {
+        Style style = parentStyle.merge(node.style());
+
+        if (node instanceof TextComponent text) {
+            String content = text.content();
+            Matcher matcher = SLOT_PATTERN.matcher(content);
+            int last = 0;
+            while (matcher.find()) {
+                int index;
+                try {
+                    index = Integer.parseInt(matcher.group(1));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                if (matcher.start() > last) {
+                    parts.add(new TextPart(content.substring(last, matcher.start()), style));
+                }
+                parts.add(new SlotPart(index, style));
+                last = matcher.end();
+            }
+            if (last < content.length()) {
+                parts.add(new TextPart(content.substring(last), style));
+            }
+        } else {
+            parts.add(new ComponentPart(node.children(List.of()).style(style)));
+        }
+
+        for (Component child : node.children()) {
+            flatten(child, style, parts);
+        }
+    }
+
+    public static MessageTemplate compile(String raw, Function<String, Component> parser) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> slots = new ArrayList<>();
+
+        Matcher matcher = SLOT_PATTERN.matcher(raw);
+        int last = 0;
+        while (matcher.find()) {
+            try {
+                slots.add(Integer.parseInt(matcher.group(1)));
+            } catch (NumberFormatException e) {
+                continue; // Not a real slot, keep it as text
+            }
+            literals.add(raw.substring(last, matcher.start()));
+            last = matcher.end();
+        }
+        literals.add(raw.substring(last));
+
+        int[] slotArray = new int[slots.size()];
+        for (int i = 0; i < slotArray.length; i++) {
+            slotArray[i] = slots.get(i);
+        }
+
+        return new MessageTemplate(raw, literals.toArray(new String[0]), slotArray, parser.apply(raw));
+    }
+
+    public boolean hasSlots() {
+        return slots.length > 0;
+    }
+
+    public String getRaw() {
+        return raw;
+    }
+
+    public String render(Object... args) {
+        if (slots.length == 0) {
+            return raw;
+        }
+
+        StringBuilder builder = new StringBuilder(raw.length() + 16 * slots.length);
+        for (int i = 0; i < slots.length; i++) {
+            builder.append(literals[i]);
+            appendSlot(builder, slots[i], args);
+        }
+        builder.append(literals[slots.length]);
+
+        return builder.toString();
+    }
+
+    // Arguments are inserted as plain text, adjacent runs of the same style are joined into one component
+    public Component renderComponent(Object... args) {
+        if (slots.length == 0) {
+            return component;
+        }
+
+        TextComponent.Builder builder = Component.text();
+        StringBuilder run = new StringBuilder();
+        Style runStyle = null;
+
+        for (Part part : parts) {
+            String text;
+            Style style;
+            if (part instanceof TextPart textPart) {
+                text = textPart.text();
+                style = textPart.style();
+            } else if (part instanceof SlotPart slotPart) {
+                int index = slotPart.index();
+                text = index < args.length ? String.valueOf(args[index]) : "{" + index + "}";
+                style = slotPart.style();
+            } else {
+                appendRun(builder, run, runStyle);
+                runStyle = null;
+                builder.append(((ComponentPart) part).component());
+                continue;
+            }
+
+            if (runStyle != null && !runStyle.equals(style)) {
+                appendRun(builder, run, runStyle);
+            }
+            runStyle = style;
+            run.append(text);
+        }
+        appendRun(builder, run, runStyle);
+
+        return builder.build();
+    }
+
+    private static void appendRun(TextComponent.Builder builder, StringBuilder run, Style style) {
+        if (style != null && !run.isEmpty()) {
+            builder.append(Component.text(run.toString(), style));
+        }
+        run.setLength(0);
+    }
+
+    private static void appendSlot(StringBuilder builder, int index, Object[] args) {
+        if (index < args.length) {
+            builder.append(args[index]);
+        } else {
+            builder.append('{').append(index).append('}');
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.misqzy.jailPlus.data;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.when;
+
+class CachedLocationTest {
+
+    private MockedStatic<Bukkit> bukkit;
+
+    @BeforeEach
+    void setUp() {
+        bukkit = mockStatic(Bukkit.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bukkit.close();
+    }
+
+    private World loadWorld(String name) {
+        World world = mock(World.class);
+        UUID uid = UUID.randomUUID();
+        when(world.getUID()).thenReturn(uid);
+        when(world.getName()).thenReturn(name);
+        bukkit.when(() -> Bukkit.getWorld(name)).thenReturn(world);
+        bukkit.when(() -> Bukkit.getWorld(uid)).thenReturn(world);
+        return world;
+    }
+
+    private void unloadWorld(World world) {
+        bukkit.when(() -> Bukkit.getWorld(world.getName())).thenReturn(null);
+        bukkit.when(() -> Bukkit.getWorld(world.getUID())).thenReturn(null);
+    }
+
+    @Test
+    void resolvesOnceAndHandsOutClones() {
+        World world = loadWorld("world");
+        CachedLocation cached = new CachedLocation();
+
+        Location first = cached.get("world", 1.5, 64, -2.5, 90f, 10f);
+        Location second = cached.get("world", 1.5, 64, -2.5, 90f, 10f);
+
+        assertNotNull(first);
+        assertNotSame(first, second);
+        assertSame(world, second.getWorld());
+        assertEquals(-2.5, second.getZ());
+        assertEquals(90f, second.getYaw());
+
+        // Changing a returned copy does not leak into the template
+        first.setX(100);
+        assertEquals(1.5, cached.get("world", 1.5, 64, -2.5, 90f, 10f).getX());
+        bukkit.verify(() -> Bukkit.getWorld("world"), times(1));
+    }
+
+    @Test
+    void missingWorldIsCachedUntilWorldsChange() {
+        CachedLocation cached = new CachedLocation();
+        assertNull(cached.get("later", 0, 64, 0, 0f, 0f));
+
+        World world = loadWorld("later");
+        assertNull(cached.get("later", 0, 64, 0, 0f, 0f));
+
+        CachedLocation.invalidateAll();
+        assertSame(world, cached.get("later", 0, 64, 0, 0f, 0f).getWorld());
+    }
+
+    @Test
+    void unloadedWorldIsNeverHandedOut() {
+        World world = loadWorld("resets");
+        CachedLocation cached = new CachedLocation();
+        assertSame(world, cached.get("resets", 0, 64, 0, 0f, 0f).getWorld());
+
+        // Unloaded without an invalidation in between
+        unloadWorld(world);
+        assertNull(cached.get("resets", 0, 64, 0, 0f, 0f));
+
+        World reloaded = loadWorld("resets");
+        CachedLocation.invalidateAll();
+        assertSame(reloaded, cached.get("resets", 0, 64, 0, 0f, 0f).getWorld());
+    }
+
+    @Test
+    void invalidateDropsOnlyThatTemplate() {
+        World world = loadWorld("world");
+        CachedLocation moved = new CachedLocation();
+        CachedLocation other = new CachedLocation();
+        moved.get("world", 0, 64, 0, 0f, 0f);
+        other.get("world", 0, 64, 0, 0f, 0f);
+
+        moved.invalidate();
+        assertEquals(5.0, moved.get("world", 5, 64, 0, 0f, 0f).getX());
+        assertEquals(0.0, other.get("world", 5, 64, 0, 0f, 0f).getX());
+        assertSame(world, other.get("world", 5, 64, 0, 0f, 0f).getWorld());
+    }
+}
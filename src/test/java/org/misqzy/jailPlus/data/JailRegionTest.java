@@ -0,0 +1,43 @@
+package org.misqzy.jailPlus.data;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JailRegionTest {
+
+    @Test
+    void normalizesCorners() {
+        JailRegion region = new JailRegion(10, 70, -5, 0, 60, 5);
+
+        assertEquals(0, region.getMinX());
+        assertEquals(60, region.getMinY());
+        assertEquals(-5, region.getMinZ());
+        assertEquals(10, region.getMaxX());
+        assertEquals(70, region.getMaxY());
+        assertEquals(5, region.getMaxZ());
+        assertEquals("0, 60, -5 -> 10, 70, 5", region.toString());
+    }
+
+    @Test
+    void boundsAreInclusive() {
+        JailRegion region = new JailRegion(0, 60, 0, 10, 70, 10);
+
+        assertTrue(region.contains(0, 60, 0));
+        assertTrue(region.contains(10, 70, 10));
+        assertTrue(region.contains(5, 65, 5));
+        assertFalse(region.contains(-1, 65, 5));
+        assertFalse(region.contains(5, 71, 5));
+        assertFalse(region.contains(5, 65, 11));
+    }
+
+    @Test
+    void singleBlockRegion() {
+        JailRegion region = new JailRegion(3, 3, 3, 3, 3, 3);
+
+        assertTrue(region.contains(3, 3, 3));
+        assertFalse(region.contains(3, 4, 3));
+    }
+}
@@ -0,0 +1,102 @@
+package org.misqzy.jailPlus.managers;
+
+import org.junit.jupiter.api.Test;
+import org.misqzy.jailPlus.managers.StatisticsManager.PlayerStatistics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PlayerStatisticsTest {
+
+    private static final int HISTORY = StatisticsManager.HISTORY_DAYS;
+    private static final long DAY = 20_000;
+
+    private static PlayerStatistics jailedOn(long... days) {
+        PlayerStatistics stats = StatisticsManager.EMPTY;
+        for (long day : days) {
+            stats = stats.withJail("prisoner", 60, "reason", day);
+        }
+        return stats;
+    }
+
+    private static List<Long> historyDays(PlayerStatistics stats) {
+        List<Long> days = new ArrayList<>();
+        stats.forEachHistoryDay((day, count) -> {
+            for (int i = 0; i < count; i++) {
+                days.add(day);
+            }
+        });
+        return days;
+    }
+
+    @Test
+    void countsOnlyTheRequestedWindow() {
+        PlayerStatistics stats = jailedOn(DAY - 10, DAY - 3, DAY, DAY);
+
+        assertEquals(2, stats.getJailCountSince(DAY, 1));
+        assertEquals(3, stats.getJailCountSince(DAY, 4));
+        assertEquals(4, stats.getJailCountSince(DAY, 11));
+        assertEquals(0, stats.getJailCountSince(DAY, 0));
+        assertEquals(4, stats.getTimesJailed());
+    }
+
+    @Test
+    void windowAboveHistoryIsClamped() {
+        PlayerStatistics stats = jailedOn(DAY - HISTORY + 1, DAY);
+
+        assertEquals(2, stats.getJailCountSince(DAY, HISTORY));
+        assertEquals(2, stats.getJailCountSince(DAY, 365));
+        // Asked later, the oldest bucket is outside the window even when the request is wider
+        assertEquals(1, stats.getJailCountSince(DAY + 1, 365));
+    }
+
+    @Test
+    void rolloverDropsBucketsOlderThanTheHistory() {
+        PlayerStatistics stats = jailedOn(DAY, DAY + HISTORY - 1);
+        assertEquals(List.of(DAY, DAY + HISTORY - 1), historyDays(stats));
+
+        // Shares DAY's ring slot, the old count must not leak into it
+        stats = stats.withJail("prisoner", 60, "reason", DAY + HISTORY);
+        assertEquals(List.of(DAY + HISTORY - 1, DAY + HISTORY), historyDays(stats));
+        assertEquals(2, stats.getJailCountSince(DAY + HISTORY, 365));
+        assertEquals(3, stats.getTimesJailed());
+
+        // A long pause empties the history but keeps the totals
+        stats = stats.withJail("prisoner", 60, "reason", DAY + 10 * HISTORY);
+        assertEquals(List.of(DAY + 10 * HISTORY), historyDays(stats));
+        assertEquals(4, stats.getTimesJailed());
+        assertEquals(240, stats.getTotalJailTime());
+    }
+
+    @Test
+    void clockSteppingBackKeepsTheNewestDay() {
+        PlayerStatistics stats = jailedOn(DAY, DAY - 5);
+
+        assertEquals(List.of(DAY - 5, DAY), historyDays(stats));
+        assertEquals(2, stats.getJailCountSince(DAY, 6));
+        assertEquals(1, stats.getJailCountSince(DAY, 5));
+        // Queried with the stepped back clock, days after it are not counted
+        assertEquals(1, stats.getJailCountSince(DAY - 5, 1));
+    }
+
+    @Test
+    void jailFurtherBackThanTheHistoryOnlyCountsInTotals() {
+        PlayerStatistics stats = jailedOn(DAY, DAY - HISTORY);
+
+        assertEquals(List.of(DAY), historyDays(stats));
+        assertEquals(1, stats.getJailCountSince(DAY, HISTORY));
+        assertEquals(2, stats.getTimesJailed());
+    }
+
+    @Test
+    void emptyNameKeepsTheKnownOne() {
+        PlayerStatistics stats = jailedOn(DAY).withJail("", 30, "later", DAY);
+
+        assertEquals("prisoner", stats.getPlayerName());
+        assertEquals("later", stats.getLastJailReason());
+        assertEquals(60, stats.getLongestJailTime());
+        assertEquals("45", stats.getAverageJailTimeText());
+    }
+}
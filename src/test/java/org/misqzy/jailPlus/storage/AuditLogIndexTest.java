@@ -0,0 +1,99 @@
+package org.misqzy.jailPlus.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditLogIndexTest {
+
+    private final File first = new File("audit-1.ndjson");
+    private final File second = new File("audit-2.ndjson");
+
+    private AuditLogIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new AuditLogIndex();
+        // Offsets double as record numbers to make results easy to read
+        index.add(first, 0, 10, 1000, "Steve", "Admin", "JAIL");
+        index.add(first, 1, 10, 2000, "Alex", "Admin", "JAIL");
+        index.add(first, 2, 10, 3000, "Steve", "Console", "UNJAIL");
+        index.add(second, 3, 10, 4000, "Steve", "Admin", "JAIL");
+        index.add(second, 4, 10, 5000, "Alex", "Console", "UNJAIL");
+    }
+
+    @Test
+    void returnsAllRecordsNewestFirst() {
+        AuditLogIndex.Result result = index.query(AuditLogIndex.Query.ALL, -1, 0, 10);
+
+        assertArrayEquals(new long[]{4, 3, 2, 1, 0}, result.offsets());
+        assertSame(second, result.segments()[0]);
+        assertSame(first, result.segments()[4]);
+        assertFalse(result.hasMore());
+        assertEquals(5, index.size());
+    }
+
+    @Test
+    void filtersAreCaseInsensitiveAndCombined() {
+        AuditLogIndex.Query query = new AuditLogIndex.Query("steve", "ADMIN", null, 0L, 0L);
+        assertArrayEquals(new long[]{3, 0}, index.query(query, -1, 0, 10).offsets());
+
+        AuditLogIndex.Query unjails = new AuditLogIndex.Query(null, null, "unjail", 0L, 0L);
+        assertArrayEquals(new long[]{4, 2}, index.query(unjails, -1, 0, 10).offsets());
+    }
+
+    @Test
+    void unknownFilterValueMatchesNothing() {
+        AuditLogIndex.Query query = new AuditLogIndex.Query("Herobrine", null, null, 0L, 0L);
+        assertEquals(0, index.query(query, -1, 0, 10).size());
+    }
+
+    @Test
+    void timeRangeIsSinceInclusiveUntilExclusive() {
+        AuditLogIndex.Query query = new AuditLogIndex.Query(null, null, null, 2000L, 4000L);
+        assertArrayEquals(new long[]{2, 1}, index.query(query, -1, 0, 10).offsets());
+    }
+
+    @Test
+    void pagesWithLimitSkipAndCursor() {
+        AuditLogIndex.Result page = index.query(AuditLogIndex.Query.ALL, -1, 0, 2);
+        assertArrayEquals(new long[]{4, 3}, page.offsets());
+        assertTrue(page.hasMore());
+        assertEquals(3, page.lastId());
+
+        AuditLogIndex.Result next = index.query(AuditLogIndex.Query.ALL, page.lastId(), 0, 2);
+        assertArrayEquals(new long[]{2, 1}, next.offsets());
+
+        AuditLogIndex.Result skipped = index.query(AuditLogIndex.Query.ALL, -1, 3, 2);
+        assertArrayEquals(new long[]{1, 0}, skipped.offsets());
+        assertFalse(skipped.hasMore());
+    }
+
+    @Test
+    void clockSteppingBackKeepsTimesOrdered() {
+        index.add(second, 5, 10, 100, "Steve", "Admin", "JAIL");
+
+        AuditLogIndex.Query query = new AuditLogIndex.Query(null, null, null, 5000L, 0L);
+        assertArrayEquals(new long[]{5, 4}, index.query(query, -1, 0, 10).offsets());
+    }
+
+    @Test
+    void growsBeyondTheInitialCapacity() {
+        index.clear();
+        for (int i = 0; i < 5000; i++) {
+            index.add(first, i, 1, i, i % 2 == 0 ? "even" : "odd", "Admin", "JAIL");
+        }
+
+        AuditLogIndex.Query odd = new AuditLogIndex.Query("odd", null, null, 0L, 0L);
+        AuditLogIndex.Result result = index.query(odd, -1, 0, 3);
+        assertArrayEquals(new long[]{4999, 4997, 4995}, result.offsets());
+        assertEquals(5000, index.size());
+    }
+}
@@ -0,0 +1,294 @@
+package org.misqzy.jailPlus.storage;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.misqzy.jailPlus.JailPlus;
+import org.misqzy.jailPlus.data.JailData;
+import org.misqzy.jailPlus.data.JailRegion;
+import org.misqzy.jailPlus.data.PlayerJailData;
+import org.misqzy.jailPlus.managers.ConfigManager;
+import org.mockito.MockedStatic;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.when;
+
+class SqlJailStorageTest {
+
+    private static final UUID PLAYER = UUID.fromString("0f5a8c1e-3b9d-4e27-9a61-2c4d8e7f1b30");
+
+    @TempDir
+    Path dataFolder;
+
+    private JailPlus plugin;
+    private MockedStatic<Bukkit> bukkit;
+    private final List<JailStorage> opened = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ConfigManager configManager = mock(ConfigManager.class);
+        when(configManager.getMySQLTablePrefix()).thenReturn("jp_");
+        when(configManager.getSQLiteFile()).thenReturn("jailplus.db");
+        when(configManager.getStoragePoolSize()).thenReturn(2);
+        when(configManager.getStorageFlushInterval()).thenReturn(40L);
+
+        plugin = mock(JailPlus.class);
+        when(plugin.getConfigManager()).thenReturn(configManager);
+        when(plugin.getDataFolder()).thenReturn(dataFolder.toFile());
+        when(plugin.getLogger()).thenReturn(Logger.getLogger("JailPlusTest"));
+
+        // Flushes are driven by the tests, the periodic task is never run
+        BukkitScheduler scheduler = mock(BukkitScheduler.class);
+        when(scheduler.runTaskTimerAsynchronously(any(Plugin.class), any(Runnable.class), anyLong(), anyLong()))
+                .thenReturn(mock(BukkitTask.class));
+        bukkit = mockStatic(Bukkit.class);
+        bukkit.when(Bukkit::getScheduler).thenReturn(scheduler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        opened.forEach(JailStorage::close);
+        bukkit.close();
+    }
+
+    private SqlJailStorage open() throws Exception {
+        SqlJailStorage storage = new SqlJailStorage(plugin, false);
+        storage.init();
+        opened.add(storage);
+        return storage;
+    }
+
+    private SqlJailStorage reopen(SqlJailStorage storage) throws Exception {
+        storage.close();
+        opened.remove(storage);
+        return open();
+    }
+
+    @Test
+    void savedJailsAndPrisonersSurviveReopen() throws Exception {
+        SqlJailStorage storage = open();
+
+        JailData jail = new JailData("Main", "world", 10.5, 64.0, -3.5, 90.0f, 15.0f);
+        jail.setRegion(new JailRegion(0, 60, -10, 20, 70, 5));
+        storage.saveJail(jail);
+
+        PlayerJailData prisoner = new PlayerJailData(PLAYER, "Steve", "main", 3600, "Griefing", "Admin");
+        prisoner.setStartMillis(1_700_000_000_123L);
+        prisoner.setPreviousLocation("world_nether", 1.0, 2.0, 3.0, 4.0f, 5.0f);
+        storage.savePlayer(prisoner);
+
+        storage = reopen(storage);
+
+        Collection<JailData> jails = storage.loadJails();
+        assertEquals(1, jails.size());
+        JailData loadedJail = jails.iterator().next();
+        assertEquals("main", loadedJail.getName());
+        assertEquals("world", loadedJail.getWorldName());
+        assertEquals(10.5, loadedJail.getX());
+        assertEquals(-3.5, loadedJail.getZ());
+        assertEquals(90.0f, loadedJail.getYaw());
+        assertNotNull(loadedJail.getRegion());
+        assertTrue(loadedJail.getRegion().contains(20, 70, 5));
+        assertFalse(loadedJail.getRegion().contains(21, 70, 5));
+
+        Collection<PlayerJailData> players = storage.loadPlayers();
+        assertEquals(1, players.size());
+        PlayerJailData loaded = players.iterator().next();
+        assertEquals(PLAYER, loaded.getPlayerUuid());
+        assertEquals("Steve", loaded.getPlayerName());
+        assertEquals("main", loaded.getJailName());
+        assertEquals(3600, loaded.getJailTime());
+        assertEquals(1_700_000_000_123L, loaded.getStartMillis());
+        assertEquals("Griefing", loaded.getReason());
+        assertEquals("Admin", loaded.getJailedBy());
+        assertEquals("world_nether", loaded.getPreviousWorldName());
+        assertEquals(3.0, loaded.getPreviousZ());
+        assertFalse(loaded.isPending());
+    }
+
+    @Test
+    void pendingFlagIsStored() throws Exception {
+        SqlJailStorage storage = open();
+
+        PlayerJailData prisoner = new PlayerJailData(PLAYER, "Steve", "main", 600, "Offline", "Admin");
+        prisoner.setPending(true);
+        storage.savePlayer(prisoner);
+
+        storage = reopen(storage);
+
+        PlayerJailData loaded = storage.loadPlayers().iterator().next();
+        assertTrue(loaded.isPending());
+        assertNull(loaded.getPreviousWorldName());
+    }
+
+    @Test
+    void unknownNameIsStoredEmpty() throws Exception {
+        SqlJailStorage storage = open();
+
+        // Jailed by UUID before the player ever joined
+        PlayerJailData prisoner = new PlayerJailData(PLAYER, null, "main", 600, "Offline", "Admin");
+        prisoner.setPending(true);
+        storage.savePlayer(prisoner);
+
+        storage = reopen(storage);
+
+        PlayerJailData loaded = storage.loadPlayers().iterator().next();
+        assertEquals("", loaded.getPlayerName());
+        assertEquals(PLAYER.toString(), loaded.getDisplayName());
+    }
+
+    @Test
+    void deletesRemoveRows() throws Exception {
+        SqlJailStorage storage = open();
+        storage.saveJail(new JailData("main", "world", 0, 64, 0, 0, 0));
+        storage.savePlayer(new PlayerJailData(PLAYER, "Steve", "main", 60, "Test", "Admin"));
+        storage.flush();
+
+        storage.deleteJail("MAIN");
+        storage.deletePlayer(PLAYER);
+        storage.flush();
+
+        assertTrue(storage.loadJails().isEmpty());
+        assertTrue(storage.loadPlayers().isEmpty());
+    }
+
+    @Test
+    void latestQueuedChangeWins() throws Exception {
+        SqlJailStorage storage = open();
+        storage.saveJail(new JailData("main", "world", 0, 64, 0, 0, 0));
+        storage.deleteJail("main");
+        storage.saveJail(new JailData("other", "world", 0, 64, 0, 0, 0));
+        storage.flush();
+
+        Collection<JailData> jails = storage.loadJails();
+        assertEquals(1, jails.size());
+        assertEquals("other", jails.iterator().next().getName());
+    }
+
+    @Test
+    void rejectedRowIsDroppedWithoutBlockingTheRest() throws Exception {
+        SqlJailStorage storage = open();
+        // world is NOT NULL, the database rejects this row for good
+        storage.saveJail(new JailData("broken", null, 0, 64, 0, 0, 0));
+        storage.saveJail(new JailData("main", "world", 0, 64, 0, 0, 0));
+        storage.savePlayer(new PlayerJailData(PLAYER, "Steve", "main", 60, "Test", "Admin"));
+        storage.flush();
+
+        Collection<JailData> jails = storage.loadJails();
+        assertEquals(1, jails.size());
+        assertEquals("main", jails.iterator().next().getName());
+        assertEquals(1, storage.loadPlayers().size());
+
+        // The bad row is not retried and later changes are written
+        storage.saveJail(new JailData("other", "world", 0, 64, 0, 0, 0));
+        storage.flush();
+        assertEquals(2, storage.loadJails().size());
+    }
+
+    @Test
+    void addsMissingColumnsToOldTables() throws Exception {
+        Path databaseFile = dataFolder.resolve("jailplus.db");
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile);
+             Statement statement = connection.createStatement()) {
+            // Schema as created by the first SQL release
+            statement.executeUpdate("CREATE TABLE jp_jails (name VARCHAR(64) NOT NULL PRIMARY KEY,"
+                    + "world VARCHAR(64) NOT NULL, x DOUBLE NOT NULL, y DOUBLE NOT NULL, z DOUBLE NOT NULL,"
+                    + "yaw DOUBLE NOT NULL, pitch DOUBLE NOT NULL)");
+            statement.executeUpdate("CREATE TABLE jp_prisoners (uuid VARCHAR(36) NOT NULL PRIMARY KEY,"
+                    + "name VARCHAR(16), jail VARCHAR(64) NOT NULL, jail_time BIGINT NOT NULL,"
+                    + "start_time BIGINT NOT NULL, reason TEXT, jailed_by VARCHAR(64), prev_world VARCHAR(64),"
+                    + "prev_x DOUBLE, prev_y DOUBLE, prev_z DOUBLE, prev_yaw DOUBLE, prev_pitch DOUBLE)");
+            statement.executeUpdate("INSERT INTO jp_jails VALUES ('main', 'world', 1, 64, 2, 0, 0)");
+            statement.executeUpdate("INSERT INTO jp_prisoners (uuid, name, jail, jail_time, start_time, reason, jailed_by)"
+                    + " VALUES ('" + PLAYER + "', 'Steve', 'main', 120, 1700000000, 'Old', 'Admin')");
+        }
+
+        SqlJailStorage storage = open();
+
+        JailData jail = storage.loadJails().iterator().next();
+        assertEquals("main", jail.getName());
+        assertNull(jail.getRegion());
+
+        PlayerJailData prisoner = storage.loadPlayers().iterator().next();
+        assertEquals(120, prisoner.getJailTime());
+        assertEquals(1_700_000_000_000L, prisoner.getStartMillis());
+        assertFalse(prisoner.isPending());
+
+        // The added columns are writable
+        jail.setRegion(new JailRegion(0, 0, 0, 5, 5, 5));
+        storage.saveJail(jail);
+        prisoner.setPending(true);
+        storage.savePlayer(prisoner);
+        storage = reopen(storage);
+
+        assertNotNull(storage.loadJails().iterator().next().getRegion());
+        assertTrue(storage.loadPlayers().iterator().next().isPending());
+    }
+
+    @Test
+    void importsYamlDataIntoEmptyStorage() throws Exception {
+        Files.writeString(dataFolder.resolve("jails.yml"), """
+                jails:
+                  main:
+                    world: world
+                    x: 1.0
+                    y: 64.0
+                    z: 2.0
+                    yaw: 0.0
+                    pitch: 0.0
+                """);
+        Files.writeString(dataFolder.resolve("players.yml"), """
+                players:
+                  %s:
+                    name: Steve
+                    jail: main
+                    jail-time: 300
+                    start-time: 1700000000
+                    reason: Spam
+                    jailed-by: Admin
+                """.formatted(PLAYER));
+
+        SqlJailStorage storage = open();
+        assertEquals(2, storage.importFrom(new YamlJailStorage(plugin)));
+
+        storage = reopen(storage);
+        assertEquals(1, storage.loadJails().size());
+        PlayerJailData prisoner = storage.loadPlayers().iterator().next();
+        assertEquals("Steve", prisoner.getPlayerName());
+        assertEquals(300, prisoner.getJailTime());
+
+        // Only an empty storage is imported into
+        assertEquals(0, storage.importFrom(new YamlJailStorage(plugin)));
+    }
+
+    @Test
+    void importWithoutYamlDataDoesNothing() throws Exception {
+        SqlJailStorage storage = open();
+        assertEquals(0, storage.importFrom(new YamlJailStorage(plugin)));
+        assertTrue(storage.loadJails().isEmpty());
+    }
+}
@@ -0,0 +1,61 @@
+package org.misqzy.jailPlus.utils;
+
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandMap;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CommandAllowListTest {
+
+    @Test
+    void matchesTheFirstTokenCaseInsensitively() {
+        CommandAllowList allowList = CommandAllowList.compile(List.of("/msg", "Help"), null);
+
+        assertTrue(allowList.isAllowed("/msg Steve hi"));
+        assertTrue(allowList.isAllowed("/MSG"));
+        assertTrue(allowList.isAllowed("/help"));
+        assertFalse(allowList.isAllowed("/msgx"));
+        assertFalse(allowList.isAllowed("/spawn msg"));
+        assertFalse(allowList.isAllowed("/"));
+    }
+
+    @Test
+    void matchesNamespacedLabels() {
+        CommandAllowList allowList = CommandAllowList.compile(List.of("essentials"), null);
+
+        assertTrue(allowList.isAllowed("/essentials:msg Steve"));
+        assertFalse(allowList.isAllowed("/other:msg"));
+    }
+
+    @Test
+    void matchesAliasesThroughTheCommandMap() {
+        Command msg = mock(Command.class);
+        Command spawn = mock(Command.class);
+        CommandMap commandMap = mock(CommandMap.class);
+        when(commandMap.getCommand("msg")).thenReturn(msg);
+        when(commandMap.getCommand("tell")).thenReturn(msg);
+        when(commandMap.getCommand("minecraft:msg")).thenReturn(msg);
+        when(commandMap.getCommand("spawn")).thenReturn(spawn);
+
+        CommandAllowList allowList = CommandAllowList.compile(List.of("msg"), commandMap);
+
+        assertTrue(allowList.isAllowed("/tell Steve hi"));
+        assertTrue(allowList.isAllowed("/minecraft:msg Steve"));
+        assertFalse(allowList.isAllowed("/spawn"));
+        assertFalse(allowList.isAllowed("/unknown"));
+    }
+
+    @Test
+    void ignoresBlankEntries() {
+        CommandAllowList allowList = CommandAllowList.compile(List.of(" ", "/"), null);
+
+        assertFalse(allowList.isAllowed("/ "));
+        assertFalse(allowList.isAllowed("/anything"));
+    }
+}
@@ -0,0 +1,86 @@
+package org.misqzy.jailPlus.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExpiryQueueTest {
+
+    private static List<String> poll(ExpiryQueue<String> queue, long now) {
+        List<String> expired = new ArrayList<>();
+        queue.pollExpired(now, expired::add);
+        return expired;
+    }
+
+    @Test
+    void pollsOnlyDueKeysInDeadlineOrder() {
+        ExpiryQueue<String> queue = new ExpiryQueue<>();
+        queue.schedule("c", 300);
+        queue.schedule("a", 100);
+        queue.schedule("b", 200);
+
+        assertEquals(List.of(), poll(queue, 99));
+        assertEquals(List.of("a", "b"), poll(queue, 200));
+        assertEquals(1, queue.size());
+        assertEquals(List.of("c"), poll(queue, Long.MAX_VALUE));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void rescheduleReplacesTheOldDeadline() {
+        ExpiryQueue<String> queue = new ExpiryQueue<>();
+        queue.schedule("a", 100);
+        queue.schedule("a", 500);
+
+        assertEquals(List.of(), poll(queue, 100));
+        assertTrue(queue.contains("a"));
+        assertEquals(List.of("a"), poll(queue, 500));
+
+        queue.schedule("b", 500);
+        queue.schedule("b", 50);
+        assertEquals(List.of("b"), poll(queue, 50));
+        assertEquals(List.of(), poll(queue, 500));
+    }
+
+    @Test
+    void removedKeysAreNeverPolled() {
+        ExpiryQueue<String> queue = new ExpiryQueue<>();
+        queue.schedule("a", 100);
+        queue.remove("a");
+
+        assertFalse(queue.contains("a"));
+        assertEquals(List.of(), poll(queue, 1000));
+    }
+
+    @Test
+    void compactionKeepsLiveDeadlines() {
+        ExpiryQueue<Integer> queue = new ExpiryQueue<>();
+        for (int round = 0; round < 10; round++) {
+            for (int key = 0; key < 100; key++) {
+                queue.schedule(key, 1000L + round * 100 + key);
+            }
+        }
+        assertEquals(100, queue.size());
+
+        List<Integer> expired = new ArrayList<>();
+        queue.pollExpired(1000L + 900 + 49, expired::add);
+        assertEquals(50, expired.size());
+        assertEquals(0, (int) expired.get(0));
+        assertEquals(49, (int) expired.get(49));
+    }
+
+    @Test
+    void clearDropsEverything() {
+        ExpiryQueue<String> queue = new ExpiryQueue<>();
+        queue.schedule("a", 1);
+        queue.clear();
+
+        assertEquals(0, queue.size());
+        assertEquals(List.of(), poll(queue, Long.MAX_VALUE));
+    }
+}
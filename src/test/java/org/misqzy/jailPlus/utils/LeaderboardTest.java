@@ -0,0 +1,77 @@
+package org.misqzy.jailPlus.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LeaderboardTest {
+
+    private static UUID player(int id) {
+        return new UUID(0L, id);
+    }
+
+    private static List<String> names(Leaderboard leaderboard) {
+        return leaderboard.getEntries().stream().map(Leaderboard.Entry::name).toList();
+    }
+
+    @Test
+    void ranksByValueDescending() {
+        Leaderboard leaderboard = new Leaderboard(3);
+        leaderboard.update(player(1), "a", 10);
+        leaderboard.update(player(2), "b", 30);
+        leaderboard.update(player(3), "c", 20);
+
+        assertEquals(List.of("b", "c", "a"), names(leaderboard));
+        assertEquals("b", leaderboard.getName(1));
+        assertEquals("30", leaderboard.getValue(1));
+        assertEquals("a", leaderboard.getName(3));
+    }
+
+    @Test
+    void keepsOnlyTheTopEntries() {
+        Leaderboard leaderboard = new Leaderboard(2);
+        leaderboard.update(player(1), "a", 10);
+        leaderboard.update(player(2), "b", 20);
+        leaderboard.update(player(3), "c", 5);
+        leaderboard.update(player(4), "d", 15);
+
+        assertEquals(List.of("b", "d"), names(leaderboard));
+    }
+
+    @Test
+    void updatingAMemberMovesItWithoutDuplicates() {
+        Leaderboard leaderboard = new Leaderboard(3);
+        leaderboard.update(player(1), "a", 10);
+        leaderboard.update(player(2), "b", 20);
+        leaderboard.update(player(1), "a", 25);
+
+        assertEquals(List.of("a", "b"), names(leaderboard));
+    }
+
+    @Test
+    void droppedPlayerReentersOnALaterUpdate() {
+        Leaderboard leaderboard = new Leaderboard(1);
+        leaderboard.update(player(1), "a", 10);
+        leaderboard.update(player(2), "b", 20);
+        assertEquals(List.of("b"), names(leaderboard));
+
+        leaderboard.update(player(1), "a", 30);
+        assertEquals(List.of("a"), names(leaderboard));
+    }
+
+    @Test
+    void unfilledRanksAreEmpty() {
+        Leaderboard leaderboard = new Leaderboard(5);
+        leaderboard.update(player(1), null, 1);
+
+        assertEquals("", leaderboard.getName(1));
+        assertEquals("", leaderboard.getName(2));
+        assertEquals("", leaderboard.getValue(0));
+
+        leaderboard.clear();
+        assertEquals(List.of(), leaderboard.getEntries());
+    }
+}
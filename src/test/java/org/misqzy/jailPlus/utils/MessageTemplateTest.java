@@ -0,0 +1,61 @@
+package org.misqzy.jailPlus.utils;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+import net.kyori.adventure.text.serializer.plain.PlainTextComponentSerializer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MessageTemplateTest {
+
+    private static final LegacyComponentSerializer LEGACY = LegacyComponentSerializer.legacyAmpersand();
+
+    private static String plain(Component component) {
+        return PlainTextComponentSerializer.plainText().serialize(component);
+    }
+
+    @Test
+    void rendersSlotsInAnyOrder() {
+        MessageTemplate template = MessageTemplate.compile("{1} was jailed by {0} for {1}", Component::text);
+
+        assertTrue(template.hasSlots());
+        assertEquals("Steve was jailed by Admin for Steve", template.render("Admin", "Steve"));
+    }
+
+    @Test
+    void keepsSlotsWithoutArguments() {
+        MessageTemplate template = MessageTemplate.compile("{0} and {2}", Component::text);
+
+        assertEquals("a and {2}", template.render("a"));
+        assertEquals("a and {2}", plain(template.renderComponent("a")));
+    }
+
+    @Test
+    void messagesWithoutSlotsAreServedAsIs() {
+        MessageTemplate template = MessageTemplate.compile("&cNo slots here", LEGACY::deserialize);
+
+        assertFalse(template.hasSlots());
+        assertSame(template.getRaw(), template.render("unused"));
+        assertSame(template.renderComponent(), template.renderComponent("unused"));
+    }
+
+    @Test
+    void insertsArgumentsIntoTheParsedComponent() {
+        MessageTemplate template = MessageTemplate.compile("&cJailed {0} &7for &e{1}", LEGACY::deserialize);
+
+        Component rendered = template.renderComponent("Steve", "1h");
+        assertEquals("Jailed Steve for 1h", plain(rendered));
+        assertEquals("&cJailed Steve &7for &e1h", LEGACY.serialize(rendered));
+    }
+
+    @Test
+    void argumentsAreNotParsedAsFormatting() {
+        MessageTemplate template = MessageTemplate.compile("&aHello {0}", LEGACY::deserialize);
+
+        assertEquals("Hello &cSteve", plain(template.renderComponent("&cSteve")));
+    }
+}